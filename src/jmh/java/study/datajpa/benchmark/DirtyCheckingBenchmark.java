@@ -0,0 +1,107 @@
+package study.datajpa.benchmark;
+
+import org.hibernate.engine.spi.ManagedEntity;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jol.info.GraphLayout;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 영속성 컨텍스트에 회원(+팀) members건을 올려둔 상태에서 flush 비용
+ * 향상 전/후 비교: ./gradlew jmh, ./gradlew jmh -PnoEnhance
+ * (결과는 build/reports/jmh/results.json, results-noEnhance.json, jmhJar로 만들면 -p members=100000)
+ * - flushClean: 바뀐게 없어도 관리중인 엔티티 전부 dirty check
+ * - flushOneDirty: 한건만 바꾸고 flush (update 한번)
+ * 관리 엔티티당 힙 사용량은 Footprint 보조 결과(bytesPerManagedEntity)로 같이 나옴
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DirtyCheckingBenchmark {
+
+    private EntityManager em;
+    private List<Member> managed;
+    private int next;
+
+    /**
+     * JMH 결과에 시간과 같이 찍히는 값 (측정중에 바뀌지 않음)
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long bytesPerManagedEntity;
+        public long managedEntities;
+        public int enhanced;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp(JpaBenchmarkState state, Footprint footprint) {
+        EntityManagerFactory emf = state.context.getBean(EntityManagerFactory.class);
+        em = emf.createEntityManager();
+        //커밋하지 않고 tearDown에서 롤백 (flushOneDirty의 update는 DB에 안남음)
+        em.getTransaction().begin();
+        managed = em.createQuery("select m from Member m join fetch m.team", Member.class)
+                .getResultList();
+
+        int entities = managed.size() + (int) managed.stream().map(Member::getTeam).distinct().count();
+        footprint.managedEntities = entities;
+        footprint.bytesPerManagedEntity = retainedBytes(emf) / Math.max(entities, 1);
+        footprint.enhanced = SelfDirtinessTracker.class.isAssignableFrom(Member.class)
+                && ManagedEntity.class.isAssignableFrom(Member.class) ? 1 : 0;
+    }
+
+    /**
+     * 엔티티를 올린 영속성 컨텍스트에서만 닿는 객체 크기 (엔티티, EntityEntry, 스냅샷, 키/맵 노드, 값)
+     * 비어있는 영속성 컨텍스트와 겹치는 객체(세션 팩토리, 쿼리 플랜 캐시 등 공유 객체)는 빼고,
+     * 빈 세션 자체의 크기도 빼서 엔티티 때문에 늘어난 만큼만 남김
+     * (전체 힙 비교가 아니라서 결과 List나 측정 사이에 생긴 다른 할당은 안들어감)
+     */
+    private long retainedBytes(EntityManagerFactory emf) {
+        EntityManager empty = emf.createEntityManager();
+        try {
+            GraphLayout loaded = GraphLayout.parseInstance(persistenceContext(em));
+            GraphLayout baseline = GraphLayout.parseInstance(persistenceContext(empty));
+            return loaded.subtract(baseline).totalSize() - baseline.subtract(loaded).totalSize();
+        } finally {
+            empty.close();
+        }
+    }
+
+    private static PersistenceContext persistenceContext(EntityManager em) {
+        return em.unwrap(SessionImplementor.class).getPersistenceContext();
+    }
+
+    @Benchmark
+    public void flushClean(Footprint footprint) {
+        em.flush();
+    }
+
+    @Benchmark
+    public void flushOneDirty(Footprint footprint) {
+        Member member = managed.get(next++ % managed.size());
+        member.setAge(member.getAge() + 1);
+        em.flush();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        em.getTransaction().rollback();
+        em.close();
+    }
+}
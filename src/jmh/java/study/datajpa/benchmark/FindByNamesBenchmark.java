@@ -0,0 +1,43 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import study.datajpa.entity.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findByNames 목록 크기별 (IN 한번 / 청크 분할 / 배열 조인)
+ * 목록 중 distinctUsernames개만 실제 있는 이름, 나머지는 없는 이름
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FindByNamesBenchmark {
+
+    @Param({"100", "5000", "20000", "50000"})
+    public int size;
+
+    private List<String> names;
+
+    @Setup
+    public void setUp(JpaBenchmarkState state) {
+        names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add(i < state.distinctUsernames ? "member" + i : "missing" + i);
+        }
+    }
+
+    @Benchmark
+    public List<Member> findByNames(JpaBenchmarkState state) {
+        return state.readOnlyTx.execute(status -> state.memberRepository.findByNames(names));
+    }
+}
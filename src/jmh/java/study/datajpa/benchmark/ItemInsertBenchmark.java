@@ -0,0 +1,62 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import study.datajpa.entity.Item;
+import study.datajpa.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Item(id 직접 할당) size건 저장
+ * saveAll은 isNew 판단 후 row마다 persist(또는 merge -> select), insertAll/upsertAll은 SQL 바로 실행
+ * 매번 새 id로 넣으므로 측정하는 동안 item 테이블은 계속 커짐
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ItemInsertBenchmark {
+
+    @Param({"2000"})
+    public int size;
+
+    private ItemRepository itemRepository;
+
+    @Setup
+    public void setUp(JpaBenchmarkState state) {
+        itemRepository = state.context.getBean(ItemRepository.class);
+    }
+
+    @Benchmark
+    public List<Item> saveAll() {
+        return itemRepository.saveAll(items());
+    }
+
+    @Benchmark
+    public int insertAll() {
+        return itemRepository.insertAll(items());
+    }
+
+    @Benchmark
+    public int upsertAll() {
+        return itemRepository.upsertAll(items());
+    }
+
+    private List<Item> items() {
+        String prefix = UUID.randomUUID().toString();
+        List<Item> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(new Item(prefix + "-" + i));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,89 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.DataJpaApplication;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 벤치마크 공통 상태
+ * 임베디드(메모리) H2로 JPA 계층만 띄우고 members명의 회원을 teams개 팀에 고르게 나눠서 넣어둠
+ * username은 member0 ~ member{distinctUsernames-1} 이 반복되므로 username 조회 한번에 members/distinctUsernames 건
+ */
+@State(Scope.Benchmark)
+public class JpaBenchmarkState {
+
+    @Param({"1000"})
+    public int members;
+
+    @Param({"100"})
+    public int teams;
+
+    @Param({"100"})
+    public int distinctUsernames;
+
+    public ConfigurableApplicationContext context;
+    public MemberRepository memberRepository;
+    public MemberJpaRepository memberJpaRepository;
+    //리포지토리에 없는 조건 조합은 같은 JPQL을 직접 실행 (트랜잭션 안에서 쓰면 트랜잭션의 엔티티매니저)
+    public EntityManager em;
+    public TransactionTemplate readOnlyTx;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(DataJpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "logging.level.org.hibernate.SQL=warn",
+                        "decorator.datasource.p6spy.enable-logging=false")
+                .run();
+
+        memberRepository = context.getBean(MemberRepository.class);
+        memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        em = context.getBean(EntityManager.class);
+
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+
+        seed(context.getBean(TeamRepository.class), new TransactionTemplate(transactionManager));
+    }
+
+    private void seed(TeamRepository teamRepository, TransactionTemplate tx) {
+        tx.executeWithoutResult(status -> {
+            List<Team> savedTeams = new ArrayList<>();
+            for (int i = 0; i < teams; i++) {
+                savedTeams.add(teamRepository.save(new Team("team" + i)));
+            }
+            List<Member> newMembers = new ArrayList<>();
+            for (int i = 0; i < members; i++) {
+                newMembers.add(new Member("member" + (i % distinctUsernames), i % 100, savedTeams.get(i % teams)));
+            }
+            memberRepository.saveAllBatched(newMembers);
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
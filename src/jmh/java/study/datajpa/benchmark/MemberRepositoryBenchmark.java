@@ -0,0 +1,103 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.infra.Blackhole;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.NestedClosedProjections;
+import study.datajpa.repository.UsernameOnly;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 + 팀 조회 방식별 비교
+ * 모든 방식이 같은 조건(username = member1)으로 같은 row(members/distinctUsernames건)를 읽음
+ * 각 조회는 새 읽기 전용 트랜잭션(새 영속성 컨텍스트)에서 실행하고 team 이름까지 읽어야 끝남
+ * -> 지연로딩 N+1이 있으면 그대로 측정에 포함됨
+ *
+ * 리포지토리에 username 조건 버전이 없는 페치 조인/DTO는 리포지토리 @Query와 같은 JPQL에 조건만 붙여서 실행
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MemberRepositoryBenchmark {
+
+    private static final String USERNAME = "member1";
+
+    @Benchmark
+    public void fetchJoin(JpaBenchmarkState state, Blackhole blackhole) {
+        state.readOnlyTx.executeWithoutResult(status ->
+                consumeWithTeam(state.em.createQuery(
+                        "select m from Member m left join fetch m.team where m.username = :username", Member.class)
+                        .setParameter("username", USERNAME)
+                        .getResultList(), blackhole));
+    }
+
+    /**
+     * @NamedEntityGraph("Member.all")
+     */
+    @Benchmark
+    public void entityGraph(JpaBenchmarkState state, Blackhole blackhole) {
+        state.readOnlyTx.executeWithoutResult(status ->
+                consumeWithTeam(state.memberRepository.findEntityGraphByUsername(USERNAME), blackhole));
+    }
+
+    /**
+     * 페치 조인 없음 + team 지연로딩 -> N+1 (default_batch_fetch_size가 있으면 IN 배치)
+     */
+    @Benchmark
+    public void lazyNPlusOne(JpaBenchmarkState state, Blackhole blackhole) {
+        state.readOnlyTx.executeWithoutResult(status ->
+                consumeWithTeam(state.memberRepository.findListByUsername(USERNAME), blackhole));
+    }
+
+    @Benchmark
+    public void dtoQuery(JpaBenchmarkState state, Blackhole blackhole) {
+        state.readOnlyTx.executeWithoutResult(status -> {
+            List<MemberDto> result = state.em.createQuery(
+                    "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name)" +
+                            " from Member m join m.team t where m.username = :username", MemberDto.class)
+                    .setParameter("username", USERNAME)
+                    .getResultList();
+            for (MemberDto dto : result) {
+                blackhole.consume(dto.getUsername());
+                blackhole.consume(dto.getTeamName());
+            }
+        });
+    }
+
+    /**
+     * team은 안읽음 (username만 있는 프로젝션)
+     */
+    @Benchmark
+    public void interfaceProjection(JpaBenchmarkState state, Blackhole blackhole) {
+        state.readOnlyTx.executeWithoutResult(status -> {
+            List<UsernameOnly> result = state.memberRepository.findProjectionsByUsername(USERNAME, UsernameOnly.class);
+            for (UsernameOnly usernameOnly : result) {
+                blackhole.consume(usernameOnly.getUsername());
+            }
+        });
+    }
+
+    @Benchmark
+    public void nestedInterfaceProjection(JpaBenchmarkState state, Blackhole blackhole) {
+        state.readOnlyTx.executeWithoutResult(status -> {
+            List<NestedClosedProjections> result =
+                    state.memberRepository.findProjectionsByUsername(USERNAME, NestedClosedProjections.class);
+            for (NestedClosedProjections projection : result) {
+                blackhole.consume(projection.getUsername());
+                blackhole.consume(projection.getTeam().getName());
+            }
+        });
+    }
+
+    private static void consumeWithTeam(List<Member> members, Blackhole blackhole) {
+        for (Member member : members) {
+            blackhole.consume(member.getUsername());
+            blackhole.consume(member.getTeam().getName());
+        }
+    }
+}
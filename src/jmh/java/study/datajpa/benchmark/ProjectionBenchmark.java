@@ -0,0 +1,115 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.NestedClosedProjections;
+import study.datajpa.repository.UsernameOnly;
+import study.datajpa.repository.UsernameOnlyDto;
+import study.datajpa.repository.projection.GeneratedProjectionFactory;
+import study.datajpa.repository.projection.RowProjectionMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 엔티티 -> 프로젝션 변환 비용 (DB 조회 제외, 한 row 당)
+ * 스프링 데이터 JDK 프록시 vs GeneratedProjectionFactory
+ * 할당량은 gc 프로파일러의 gc.alloc.rate.norm (B/op = row 당 바이트)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProjectionBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private final SpelAwareProxyProjectionFactory proxyFactory = new SpelAwareProxyProjectionFactory();
+    private final GeneratedProjectionFactory generatedFactory = new GeneratedProjectionFactory();
+    private List<Member> members;
+    private List<Object[]> rows;
+    private RowProjectionMapper<NestedClosedProjections> nestedMapper;
+
+    @Setup
+    public void setUp() {
+        members = new ArrayList<>(ROWS);
+        rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Team team = new Team("team" + (i % 10));
+            members.add(new Member("member" + i, i, team));
+            //paths() 순서: team.name, username
+            rows.add(new Object[]{team.getName(), "member" + i});
+        }
+        //클래스 생성 비용은 측정에서 제외
+        nestedMapper = generatedFactory.rowMapperFor(NestedClosedProjections.class);
+        generatedFactory.mapperFor(UsernameOnly.class);
+        generatedFactory.mapperFor(UsernameOnlyDto.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void proxyUsernameOnly(Blackhole blackhole) {
+        for (Member member : members) {
+            blackhole.consume(proxyFactory.createProjection(UsernameOnly.class, member).getUsername());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void generatedUsernameOnly(Blackhole blackhole) {
+        for (Member member : members) {
+            blackhole.consume(generatedFactory.createProjection(UsernameOnly.class, member).getUsername());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void generatedConstructorDto(Blackhole blackhole) {
+        for (Member member : members) {
+            blackhole.consume(generatedFactory.createProjection(UsernameOnlyDto.class, member).getUsername());
+        }
+    }
+
+    /**
+     * 컬럼만 조회한 row(username, team.name)에서 바로 생성 (엔티티 없음)
+     */
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void generatedNestedFromRow(Blackhole blackhole) {
+        for (Object[] row : rows) {
+            NestedClosedProjections projection = nestedMapper.fromRow(row);
+            blackhole.consume(projection.getUsername());
+            blackhole.consume(projection.getTeam().getName());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void proxyNested(Blackhole blackhole) {
+        for (Member member : members) {
+            NestedClosedProjections projection = proxyFactory.createProjection(NestedClosedProjections.class, member);
+            blackhole.consume(projection.getUsername());
+            blackhole.consume(projection.getTeam().getName());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void generatedNested(Blackhole blackhole) {
+        for (Member member : members) {
+            NestedClosedProjections projection = generatedFactory.createProjection(NestedClosedProjections.class, member);
+            blackhole.consume(projection.getUsername());
+            blackhole.consume(projection.getTeam().getName());
+        }
+    }
+}
@@ -5,8 +5,8 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import study.datajpa.support.ScopedAuditorAware;
 
-import java.util.Optional;
 import java.util.UUID;
 
 @EnableJpaAuditing
@@ -21,6 +21,7 @@ public class DataJpaApplication {
 	public AuditorAware<String> auditorProvider() {
 		//여기서는 그냥 랜덤값 줬지만
 		//실제로는 스프링 시큐리티 세션에서 아이디 꺼내거나 해야함
-		return () -> Optional.of(UUID.randomUUID().toString());
+		//요청(트랜잭션)마다 한번만 꺼내고 재사용
+		return new ScopedAuditorAware(() -> UUID.randomUUID().toString());
 	}
 }
@@ -0,0 +1,45 @@
+package study.datajpa.audit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import study.datajpa.entity.AuditTrail;
+import study.datajpa.entity.BaseEntity;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * AuditingEntityListener와 같은 JPA 엔티티 이벤트에서 변경 이력을 남김
+ * 하이버네이트가 스프링 빈 컨테이너로 생성하므로 생성자 주입 가능
+ * AuditTrailWriter는 app.audit-trail.enabled=true일 때만 있음 (없으면 아무것도 안함)
+ */
+public class AuditTrailEntityListener {
+
+    private final ObjectProvider<AuditTrailWriter> auditTrailWriter;
+
+    public AuditTrailEntityListener(ObjectProvider<AuditTrailWriter> auditTrailWriter) {
+        this.auditTrailWriter = auditTrailWriter;
+    }
+
+    @PostPersist
+    public void postPersist(BaseEntity entity) {
+        record(entity, AuditTrail.Action.INSERT);
+    }
+
+    @PostUpdate
+    public void postUpdate(BaseEntity entity) {
+        record(entity, AuditTrail.Action.UPDATE);
+    }
+
+    @PostRemove
+    public void postRemove(BaseEntity entity) {
+        record(entity, AuditTrail.Action.DELETE);
+    }
+
+    private void record(BaseEntity entity, AuditTrail.Action action) {
+        AuditTrailWriter writer = auditTrailWriter.getIfAvailable();
+        if (writer != null) {
+            writer.record(entity, action);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package study.datajpa.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.entity.AuditTrail;
+import study.datajpa.entity.BaseEntity;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 변경 이력 write-behind
+ * - 엔티티 이벤트는 트랜잭션별로 모아뒀다가 커밋된 것만 큐에 넣음 (롤백되면 버림)
+ * - 별도 스레드가 flush-interval마다 큐를 비우면서 batch-size씩 JDBC 배치 insert
+ * 요청 트랜잭션에서는 이력 때문에 나가는 쿼리가 없음
+ * 대신 이력은 조금 늦게 보이고, 큐가 꽉 차거나 서버가 죽으면 유실될 수 있음
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.audit-trail.enabled", havingValue = "true")
+public class AuditTrailWriter {
+
+    private static final String INSERT_SQL = "insert into audit_trail" +
+            " (entity_type, entity_id, action, changed_by, changed_at) values (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final AuditorAware<String> auditorAware;
+    private final int batchSize;
+    private final BlockingQueue<AuditTrail> queue;
+    private final LongAdder dropped = new LongAdder();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "audit-trail-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public AuditTrailWriter(JdbcTemplate jdbcTemplate,
+                            EntityManagerFactory entityManagerFactory,
+                            AuditorAware<String> auditorAware,
+                            @Value("${app.audit-trail.batch-size:500}") int batchSize,
+                            @Value("${app.audit-trail.queue-capacity:100000}") int queueCapacity,
+                            @Value("${app.audit-trail.flush-interval:1s}") Duration flushInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.auditorAware = auditorAware;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        long interval = flushInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 엔티티 이벤트 시점(flush)에 호출됨, 큐에는 커밋 후에 들어감
+     */
+    public void record(BaseEntity entity, AuditTrail.Action action) {
+        Object id = entityManagerFactory.getPersistenceUnitUtil().getIdentifier(entity);
+        //ScopedAuditorAware라서 같은 트랜잭션 안에서는 다시 꺼내도 비용 없음
+        String changedBy = auditorAware.getCurrentAuditor().orElse(null);
+        AuditTrail trail = new AuditTrail(entity.getClass().getSimpleName(), String.valueOf(id),
+                action, changedBy, LocalDateTime.now());
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(trail);
+            return;
+        }
+        pendingInTransaction().add(trail);
+    }
+
+    /**
+     * 큐에 쌓인 이력을 전부 insert
+     * 스케줄러가 주기적으로 호출하고, 테스트나 종료시 직접 호출할 수도 있음
+     */
+    public synchronized int flush() {
+        int written = 0;
+        List<AuditTrail> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batchSize, (ps, trail) -> {
+                ps.setString(1, trail.getEntityType());
+                ps.setString(2, trail.getEntityId());
+                ps.setString(3, trail.getAction().name());
+                ps.setString(4, trail.getChangedBy());
+                ps.setTimestamp(5, Timestamp.valueOf(trail.getChangedAt()));
+            });
+            written += batch.size();
+            batch.clear();
+        }
+        return written;
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.shutdown();
+        flushQuietly();
+    }
+
+    /**
+     * 트랜잭션마다 이력 목록 하나를 리소스로 바인딩해두고 커밋되면 큐로 옮김
+     * REQUIRES_NEW로 다른 트랜잭션이 끼어들면 suspend/resume으로 목록을 분리
+     */
+    @SuppressWarnings("unchecked")
+    private List<AuditTrail> pendingInTransaction() {
+        List<AuditTrail> pending = (List<AuditTrail>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        List<AuditTrail> created = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(AuditTrailWriter.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(AuditTrailWriter.this, created);
+            }
+
+            @Override
+            public void afterCommit() {
+                created.forEach(AuditTrailWriter.this::enqueue);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(AuditTrailWriter.this);
+            }
+        });
+        return created;
+    }
+
+    private void enqueue(AuditTrail trail) {
+        if (!queue.offer(trail)) {
+            dropped.increment();
+            log.warn("audit trail 큐가 가득 차서 이력을 버림: {}", trail);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            //실패한 배치는 버리고 다음 주기에 계속 (요청 처리에는 영향 없음)
+            log.error("audit trail 저장 실패", e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package study.datajpa.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.datajpa.repository.MemberCountCache;
+import study.datajpa.repository.MemberWriteStatementInspector;
+
+/**
+ * yml로 넣기 어려운(스프링 빈을 넘겨야 하는) 하이버네이트 설정
+ */
+@Configuration
+public class JpaConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer memberWriteInspectorCustomizer(MemberCountCache countCache) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                new MemberWriteStatementInspector(countCache));
+    }
+}
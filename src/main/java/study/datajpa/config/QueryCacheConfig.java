@@ -0,0 +1,65 @@
+package study.datajpa.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.datajpa.repository.cache.MemberQueryCache;
+import study.datajpa.repository.cache.MemberQueryCacheEventListener;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.Duration;
+
+/**
+ * username 조회 결과 캐시 (MemberQueryCache, MemberQueryCacheAspect)
+ * app.cache.member-query.enabled=false면 NoOpCacheManager라서 항상 DB 조회
+ * 켜져있으면 Caffeine 캐시: 최대 max-size개, 넣은 후 ttl 지나면 만료 (무효화를 놓쳐도 ttl 이상 안감)
+ * hit이면 id로 Member 2차 캐시에서 다시 읽으므로 app.cache.second-level.enabled도 켜야 캐시를 씀
+ */
+@Configuration
+public class QueryCacheConfig {
+
+    @Bean
+    public CacheManager cacheManager(@Value("${app.cache.member-query.enabled:false}") boolean enabled,
+                                     @Value("${app.cache.member-query.max-size:10000}") long maxSize,
+                                     @Value("${app.cache.member-query.ttl:1m}") Duration ttl) {
+        if (!enabled) {
+            return new NoOpCacheManager();
+        }
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(
+                MemberQueryCache.FIND_BY_USERNAME,
+                MemberQueryCache.FIND_OPTIONAL_BY_USERNAME,
+                MemberQueryCache.FIND_BY_NAMES);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        //값은 항상 id 목록 (결과가 없으면 빈 목록)
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+
+    /**
+     * 하이버네이트 커밋 후 이벤트에 캐시 무효화 리스너 등록
+     */
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.member-query.enabled", havingValue = "true")
+    public MemberQueryCacheEventListener memberQueryCacheEventListener(EntityManagerFactory entityManagerFactory,
+                                                                       MemberQueryCache memberQueryCache) {
+        MemberQueryCacheEventListener listener = new MemberQueryCacheEventListener(memberQueryCache);
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, listener);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, listener);
+        return listener;
+    }
+}
@@ -0,0 +1,77 @@
+package study.datajpa.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import study.datajpa.datasource.Replica;
+import study.datajpa.datasource.ReplicaLagMonitor;
+import study.datajpa.datasource.ReplicaProperties;
+import study.datajpa.datasource.ReplicaRouting;
+import study.datajpa.datasource.ReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 읽기 전용 트랜잭션을 레플리카로 보내는 DataSource (app.datasource.replica.enabled)
+ *
+ * primary, 레플리카 풀은 DataSource 빈으로 등록하지 않음
+ * -> p6spy가 DataSource 빈마다 감싸기 때문에 빈이 여러개면 같은 SQL이 두번 잡힘
+ * DataSource 빈은 LazyConnectionDataSourceProxy 하나 (DataSourceAutoConfiguration은 빠짐)
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public ReplicaRouting replicaRouting(DataSourceProperties dataSourceProperties, ReplicaProperties replicaProperties,
+                                         ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+        //풀이 빈이 아니라서 actuator가 hikaricp 메트릭을 자동으로 못붙임 -> 풀 시작 전에 직접 등록
+        meterRegistry.ifAvailable(primary::setMetricRegistry);
+
+        List<Replica> replicas = new ArrayList<>();
+        List<ReplicaProperties.Node> nodes = replicaProperties.getNodes();
+        for (int i = 0; i < nodes.size(); i++) {
+            ReplicaProperties.Node node = nodes.get(i);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(node.getUrl());
+            replica.setUsername(node.getUsername());
+            replica.setPassword(node.getPassword());
+            replica.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            replica.setReadOnly(true);
+            meterRegistry.ifAvailable(replica::setMetricRegistry);
+            replicas.add(new Replica("replica-" + i, replica));
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicas,
+                replicaProperties.getSelection(), replicaProperties.getMaxLag().toMillis());
+        routing.afterPropertiesSet();
+
+        ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(primary, replicas);
+        lagMonitor.start(replicaProperties.getLagCheckInterval());
+        return new ReplicaRouting(routing, lagMonitor);
+    }
+
+    /**
+     * 실제 커넥션은 첫 SQL 실행 때 꺼냄 -> 그때는 트랜잭션의 readOnly 여부가 정해져 있음
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRouting replicaRouting) {
+        return new LazyConnectionDataSourceProxy(replicaRouting.getDataSource());
+    }
+}
@@ -0,0 +1,70 @@
+package study.datajpa.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * 하이버네이트 2차 캐시 (JCache + Caffeine)
+ * Team은 거의 모든 회원 조회에서 같이 읽히는데 잘 안바뀌므로 캐시 대상
+ * Member는 username 조회 캐시(MemberQueryCacheAspect)가 hit일때 id로 다시 읽는 용도
+ * 리전은 여기서 미리 만들어서 크기/만료 정책을 application.yml 값으로 걸어둠
+ *
+ * Team.members 컬렉션은 캐시 안함
+ * 회원이 자주 바뀌어서 컬렉션 캐시가 계속 비워지고, 팀별 회원 목록은 IN 배치 조회로 충분함
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.cache.second-level.enabled", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    //하이버네이트 기본 리전 이름은 엔티티 전체 이름
+    public static final String TEAM_REGION = "study.datajpa.entity.Team";
+    public static final String MEMBER_REGION = "study.datajpa.entity.Member";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${app.cache.team.max-size:10000}") long teamMaxSize,
+                                              @Value("${app.cache.team.ttl:10m}") Duration teamTtl,
+                                              @Value("${app.cache.member.max-size:10000}") long memberMaxSize,
+                                              @Value("${app.cache.member.ttl:1m}") Duration memberTtl) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+        createIfAbsent(cacheManager, TEAM_REGION, teamMaxSize, teamTtl);
+        createIfAbsent(cacheManager, MEMBER_REGION, memberMaxSize, memberTtl);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true");
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            //하이버네이트가 캐시 매니저를 따로 만들지 않고 위에서 만든걸 쓰도록
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            //나중에 컬렉션 캐시를 추가해도 Member.team이 바뀌면 반대편(Team.members) 캐시가 같이 비워지도록
+            properties.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, "true");
+        };
+    }
+
+    private void createIfAbsent(CacheManager cacheManager, String region, long maxSize, Duration ttl) {
+        if (cacheManager.getCache(region) != null) {
+            return;
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        //hit/miss/eviction 통계를 JMX(CacheStatisticsMXBean)로 노출
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(region, configuration);
+    }
+}
@@ -0,0 +1,24 @@
+package study.datajpa.config;
+
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.datajpa.seed.MemberSeeder;
+import study.datajpa.seed.SeedProperties;
+
+/**
+ * app.seed.enabled=true면 기동 후 app.seed 설정대로 데이터 적재
+ * ex) --app.seed.enabled=true --app.seed.members=10000000 --app.seed.distribution=SKEWED
+ */
+@Configuration
+@EnableConfigurationProperties(SeedProperties.class)
+public class SeedConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.seed.enabled", havingValue = "true")
+    public ApplicationRunner memberSeedRunner(MemberSeeder memberSeeder, SeedProperties seedProperties) {
+        return args -> memberSeeder.seed(seedProperties);
+    }
+}
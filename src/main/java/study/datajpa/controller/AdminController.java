@@ -0,0 +1,128 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.datasource.Replica;
+import study.datajpa.datasource.ReplicaRouting;
+import study.datajpa.support.CacheRegionStatistics;
+import study.datajpa.support.ConcurrencyMetrics;
+import study.datajpa.support.SlowQueryLog;
+import study.datajpa.support.StartupTimeline;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 모니터링용 API
+ */
+@RestController
+@RequestMapping("/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final CacheRegionStatistics cacheRegionStatistics;
+    private final ConcurrencyMetrics concurrencyMetrics;
+    private final ObjectProvider<ReplicaRouting> replicaRouting;
+    private final EntityManagerFactory entityManagerFactory;
+    private final SlowQueryLog slowQueryLog;
+    private final ObjectProvider<StartupTimeline> startupTimeline;
+
+    /**
+     * 2차 캐시 리전별 hit/miss/eviction
+     */
+    @GetMapping("/cache")
+    public List<CacheRegionStatistics.RegionStats> cacheStats() {
+        return cacheRegionStatistics.findAll();
+    }
+
+    /**
+     * 낙관적 락 재시도/실패 횟수, 비관적 락 대기 시간
+     */
+    @GetMapping("/concurrency")
+    public ConcurrencyMetrics.Snapshot concurrency() {
+        return concurrencyMetrics.snapshot();
+    }
+
+    /**
+     * 레플리카별 사용 가능 여부, lag, 라우팅된 커넥션 수 (레플리카 라우팅 꺼져있으면 빈 목록)
+     */
+    @GetMapping("/replicas")
+    public List<Replica.Status> replicas() {
+        ReplicaRouting routing = replicaRouting.getIfAvailable();
+        if (routing == null) {
+            return Collections.emptyList();
+        }
+        return routing.getDataSource().getReplicas().stream()
+                .map(Replica::status)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 하이버네이트 통계 요약 (hibernate.generate_statistics=true 일때만 값이 쌓임)
+     * 시계열로 보려면 /actuator/metrics/hibernate.* 사용
+     */
+    @GetMapping("/hibernate/statistics")
+    public Map<String, Object> hibernateStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", statistics.isStatisticsEnabled());
+        result.put("sessionsOpened", statistics.getSessionOpenCount());
+        result.put("transactions", statistics.getTransactionCount());
+        result.put("connectionsObtained", statistics.getConnectCount());
+        result.put("statementsPrepared", statistics.getPrepareStatementCount());
+        result.put("flushes", statistics.getFlushCount());
+        result.put("entityLoads", statistics.getEntityLoadCount());
+        result.put("entityFetches", statistics.getEntityFetchCount());
+        result.put("entityInserts", statistics.getEntityInsertCount());
+        result.put("entityUpdates", statistics.getEntityUpdateCount());
+        result.put("collectionLoads", statistics.getCollectionLoadCount());
+        result.put("collectionFetches", statistics.getCollectionFetchCount());
+        result.put("queryExecutions", statistics.getQueryExecutionCount());
+        result.put("queryExecutionMaxTimeMillis", statistics.getQueryExecutionMaxTime());
+        result.put("slowestQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        result.put("queryPlanCacheHits", statistics.getQueryPlanCacheHitCount());
+        result.put("queryPlanCacheMisses", statistics.getQueryPlanCacheMissCount());
+        result.put("secondLevelCacheHits", statistics.getSecondLevelCacheHitCount());
+        result.put("secondLevelCacheMisses", statistics.getSecondLevelCacheMissCount());
+        result.put("secondLevelCachePuts", statistics.getSecondLevelCachePutCount());
+        result.put("optimisticFailures", statistics.getOptimisticFailureCount());
+        return result;
+    }
+
+    /**
+     * app.slow-query.threshold 넘은 SQL (최근 것부터, 바인딩 값/호출 메서드/실행계획 포함)
+     */
+    @GetMapping("/slow-queries")
+    public List<SlowQueryLog.SlowQuery> slowQueries() {
+        return slowQueryLog.recent();
+    }
+
+    @DeleteMapping("/slow-queries")
+    public void clearSlowQueries() {
+        slowQueryLog.clear();
+    }
+
+    /**
+     * 기동 단계별 경과 시간 + 초기화가 오래 걸린 빈
+     */
+    @GetMapping("/startup")
+    public Map<String, Object> startup() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        StartupTimeline timeline = startupTimeline.getIfAvailable();
+        if (timeline != null) {
+            result.put("phases", timeline.getPhases());
+            result.put("slowestBeans", timeline.slowestBeans());
+        }
+        return result;
+    }
+}
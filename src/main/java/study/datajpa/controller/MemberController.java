@@ -1,28 +1,62 @@
 package study.datajpa.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import study.datajpa.dto.CursorResult;
+import study.datajpa.dto.MemberCursor;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSummary;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.CountStrategy;
+import study.datajpa.repository.MemberLoader;
 import study.datajpa.repository.MemberRepository;
 
-import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
     private final MemberRepository memberRepository;
+    private final MemberLoader memberLoader;
+    private final ObjectMapper objectMapper;
 
+    @Value("${app.paging.members-count-strategy:EXACT}")
+    private CountStrategy defaultCountStrategy;
+
+    //true면 /members를 엔티티 대신 DTO 생성자 쿼리로 조회
+    @Value("${app.members.dto-direct:true}")
+    private boolean dtoDirect;
+
+    //커서 조회 최대 크기는 페이징 최대 크기와 같게
+    @Value("${spring.data.web.pageable.max-page-size:2000}")
+    private int maxCursorSize;
+
+    /**
+     * 같은/가까운 시점의 조회를 MemberLoader가 합쳐서 쿼리 한번으로 처리
+     */
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id") Long id){
-        Member member = memberRepository.findById(id).get();
-        return member.getUsername();
+        return memberLoader.findSummary(id)
+                .map(MemberSummary::getUsername)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
     }
 
     /**
@@ -35,22 +69,99 @@ public class MemberController {
     public String findMember2(@PathVariable("id") Member member) {
         return member.getUsername();
     }
-    
+
+    /**
+     * count 파라미터로 totalCount 전략 선택 (EXACT, SLICE, CACHED, ESTIMATED)
+     * 안넘기면 app.paging.members-count-strategy 설정값 사용
+     * app.members.dto-direct=true면 팀 이름까지 DTO로 바로 조회
+     */
     @GetMapping("/members")
-    public Page<MemberDto> list(@PageableDefault(size=5) Pageable pageable) {
+    public Slice<MemberDto> list(@PageableDefault(size=5) Pageable pageable,
+                                 @RequestParam(value = "count", required = false) CountStrategy count) {
         //리포지토리 기본메서드에 pageable 파라미터 넘기기만 하면
         //페이징 처리됨
         //꼭 그게아니라 @Query로 정의한 메서드도 그냥 마지막 파라미터로 넘겨주면 됨
         //절대 엔티티 자체를 반환하면 안됨!!
-        return memberRepository.findAll(pageable)
+        CountStrategy countStrategy = count != null ? count : defaultCountStrategy;
+        if (dtoDirect) {
+            return memberRepository.findMemberDtos(pageable, countStrategy);
+        }
+        //엔티티 조회 후 변환 (teamName은 비어있음)
+        return memberRepository.findAll(pageable, countStrategy)
                 .map(MemberDto::new);
     }
 
-    //의존성 주입이 끝난 후 바로 실행되는 로직
-    //@PostConstruct
-    public void init() {
-        for(int i =0; i<100; i++){
-            memberRepository.save(new Member("user" + i, i));
+    /**
+     * 커서 기반(키셋) 페이징
+     * 첫 요청은 cursor 없이 orderBy(id|username)로 정렬 기준 선택
+     * 이후에는 응답의 nextCursor를 그대로 넘기면 됨 (정렬 기준은 커서에 들어있음)
+     */
+    @GetMapping("/members/cursor")
+    public CursorResult<MemberDto> listByCursor(@RequestParam(value = "cursor", required = false) String cursor,
+                                                @RequestParam(value = "orderBy", defaultValue = "id") String orderBy,
+                                                @RequestParam(value = "size", defaultValue = "5") int size) {
+        MemberCursor memberCursor = decodeCursor(cursor);
+        MemberCursor.Order order = memberCursor != null ? memberCursor.getOrder() : parseOrder(orderBy);
+        Pageable limit = PageRequest.of(0, Math.min(Math.max(size, 1), maxCursorSize));
+
+        Slice<Member> slice;
+        if (order == MemberCursor.Order.USERNAME) {
+            slice = memberCursor == null
+                    ? memberRepository.findFirstPageOrderByUsername(limit)
+                    : memberRepository.findNextByUsername(memberCursor.getUsername(), memberCursor.getId(), limit);
+        } else {
+            slice = memberRepository.findNextById(memberCursor == null ? 0L : memberCursor.getId(), limit);
+        }
+
+        List<Member> members = slice.getContent();
+        String nextCursor = slice.hasNext()
+                ? MemberCursor.of(members.get(members.size() - 1), order).encode()
+                : null;
+        return new CursorResult<>(slice.map(MemberDto::new).getContent(), nextCursor);
+    }
+
+    /**
+     * 회원 전체를 NDJSON(한 줄에 JSON 하나)으로 내려줌
+     * 스트림으로 읽으면서 바로 응답에 쓰기 때문에 회원 수와 상관없이 메모리 사용량이 일정함
+     * 스트림 조회라 트랜잭션이 열려있어야 함
+     */
+    @Transactional(readOnly = true)
+    @GetMapping("/members/export")
+    public void export(@RequestParam(value = "fetchSize", defaultValue = "1000") int fetchSize,
+                       HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        Writer writer = response.getWriter();
+
+        try (Stream<Member> members = memberRepository.streamAll(Math.max(fetchSize, 1))) {
+            Iterator<Member> iterator = members.iterator();
+            while (iterator.hasNext()) {
+                Member member = iterator.next();
+                String teamName = member.getTeam() != null ? member.getTeam().getName() : null;
+                writer.write(objectMapper.writeValueAsString(
+                        new MemberDto(member.getId(), member.getUsername(), teamName)));
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    private MemberCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return MemberCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    private MemberCursor.Order parseOrder(String orderBy) {
+        try {
+            return MemberCursor.Order.valueOf(orderBy.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "지원하지 않는 정렬 기준입니다: " + orderBy, e);
         }
     }
 }
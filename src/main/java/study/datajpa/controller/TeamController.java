@@ -0,0 +1,53 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.TeamDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.support.StatementBudget;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RestController
+@RequiredArgsConstructor
+public class TeamController {
+
+    private final TeamRepository teamRepository;
+    private final MemberRepository memberRepository;
+
+    /**
+     * 팀 페이징 + 팀별 회원 목록
+     * 컬렉션 페치 조인은 row가 뻥튀기돼서 페이징이 안되므로
+     * 1. 팀만 페이징 조회 (+ count)
+     * 2. 그 팀들의 회원을 IN 쿼리 한번으로 조회해서 메모리에서 조립
+     * -> 페이지 크기와 상관없이 쿼리 수 고정
+     */
+    @StatementBudget(3)
+    @GetMapping("/teams")
+    public Page<TeamDto> list(@PageableDefault(size = 5) Pageable pageable) {
+        Page<Team> teams = teamRepository.findAll(pageable);
+        List<Long> teamIds = teams.map(Team::getId).getContent();
+
+        //team은 프록시라도 getId()는 초기화 안함
+        Map<Long, List<Member>> membersByTeam = teamIds.isEmpty()
+                ? Collections.emptyMap()
+                : memberRepository.findByTeamIds(teamIds).stream()
+                        .collect(Collectors.groupingBy(m -> m.getTeam().getId()));
+
+        return teams.map(team -> new TeamDto(team.getId(), team.getName(),
+                membersByTeam.getOrDefault(team.getId(), Collections.emptyList()).stream()
+                        .map(m -> new MemberDto(m.getId(), m.getUsername(), team.getName()))
+                        .collect(Collectors.toList())));
+    }
+}
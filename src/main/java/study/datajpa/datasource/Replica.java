@@ -0,0 +1,77 @@
+package study.datajpa.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 레플리카 하나 (커넥션 풀 + lag 모니터링 결과)
+ */
+@Getter
+public class Replica {
+
+    private final String name;
+    private final HikariDataSource dataSource;
+    private final LongAdder routed = new LongAdder();
+
+    //ReplicaLagMonitor가 갱신 (첫 확인 전에는 안씀)
+    private volatile boolean available;
+    private volatile long lagMillis;
+
+    public Replica(String name, HikariDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public boolean isUsable(long maxLagMillis) {
+        return available && lagMillis <= maxLagMillis;
+    }
+
+    /**
+     * 사용중인 커넥션 수 (풀이 아직 안떠있으면 0)
+     */
+    public int activeConnections() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool != null ? pool.getActiveConnections() : 0;
+    }
+
+    public long getRoutedCount() {
+        return routed.sum();
+    }
+
+    void markRouted() {
+        routed.increment();
+    }
+
+    void updateLag(long lagMillis) {
+        this.lagMillis = lagMillis;
+        this.available = true;
+    }
+
+    void markUnavailable() {
+        this.available = false;
+    }
+
+    public Status status() {
+        return new Status(name, available, lagMillis, activeConnections(), getRoutedCount());
+    }
+
+    @Getter
+    public static class Status {
+        private final String name;
+        private final boolean available;
+        private final long lagMillis;
+        private final int activeConnections;
+        private final long routedCount;
+
+        private Status(String name, boolean available, long lagMillis, int activeConnections, long routedCount) {
+            this.name = name;
+            this.available = available;
+            this.lagMillis = lagMillis;
+            this.activeConnections = activeConnections;
+            this.routedCount = routedCount;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package study.datajpa.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 레플리카 지연 측정 (heartbeat 방식)
+ * 주기마다 primary의 replica_heartbeat에 현재 시각을 쓰고, 각 레플리카에서 그 값을 읽어서
+ * 마지막으로 쓴 시각과의 차이를 lag으로 봄 (복제가 멈추면 lag이 계속 커짐)
+ * 레플리카 접속이 안되면 unavailable -> 라우팅 대상에서 빠짐
+ *
+ * 로컬 H2로 테스트할 때 레플리카 URL이 primary와 같은 DB면 lag은 항상 0,
+ * 다른 DB(복제 안됨)면 heartbeat가 없으므로 unavailable 처리됨
+ */
+@Slf4j
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReplicaLagMonitor(DataSource primary, List<Replica> replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+    }
+
+    /**
+     * 한번은 바로 확인하고 (그 전까지 레플리카는 안씀) 이후 interval마다
+     */
+    public void start(Duration interval) {
+        check();
+        long millis = interval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::check, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    private void check() {
+        Timestamp written;
+        try {
+            written = writeHeartbeat();
+        } catch (SQLException e) {
+            log.warn("replica heartbeat 기록 실패", e);
+            return;
+        }
+        for (Replica replica : replicas) {
+            try {
+                Timestamp replicated = readHeartbeat(replica.getDataSource());
+                if (replicated == null) {
+                    replica.markUnavailable();
+                    continue;
+                }
+                replica.updateLag(Math.max(0, written.getTime() - replicated.getTime()));
+            } catch (SQLException e) {
+                log.debug("replica {} lag 확인 실패: {}", replica.getName(), e.getMessage());
+                replica.markUnavailable();
+            }
+        }
+    }
+
+    private Timestamp writeHeartbeat() throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (Connection connection = primary.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("create table if not exists replica_heartbeat (id int primary key, ts timestamp)");
+            }
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "merge into replica_heartbeat key(id) values (1, ?)")) {
+                ps.setTimestamp(1, now);
+                ps.executeUpdate();
+            }
+        }
+        return now;
+    }
+
+    private Timestamp readHeartbeat(DataSource replica) throws SQLException {
+        try (Connection connection = replica.getConnection();
+             PreparedStatement ps = connection.prepareStatement("select ts from replica_heartbeat where id = 1");
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getTimestamp(1) : null;
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
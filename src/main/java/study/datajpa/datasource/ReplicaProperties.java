@@ -0,0 +1,42 @@
+package study.datajpa.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 읽기 전용 레플리카 설정 (app.datasource.replica)
+ * 접속 정보가 목록이라 @Value 대신 바인딩 클래스로 받음
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReplicaProperties {
+
+    public enum Selection {ROUND_ROBIN, LEAST_BUSY}
+
+    private boolean enabled;
+
+    private List<Node> nodes = new ArrayList<>();
+
+    private Selection selection = Selection.ROUND_ROBIN;
+
+    /**
+     * 이보다 많이 뒤처진 레플리카로는 안보냄 (전부 뒤처지면 primary)
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+    @Getter
+    @Setter
+    public static class Node {
+        private String url;
+        private String username = "sa";
+        private String password = "";
+    }
+}
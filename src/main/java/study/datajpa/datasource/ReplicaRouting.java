@@ -0,0 +1,26 @@
+package study.datajpa.datasource;
+
+/**
+ * 라우팅 DataSource + lag 모니터 묶음 (빈으로 등록해서 종료시 같이 닫음)
+ * DataSource 빈이 아니라서 p6spy가 감싸지 않음
+ */
+public class ReplicaRouting implements AutoCloseable {
+
+    private final ReplicaRoutingDataSource dataSource;
+    private final ReplicaLagMonitor lagMonitor;
+
+    public ReplicaRouting(ReplicaRoutingDataSource dataSource, ReplicaLagMonitor lagMonitor) {
+        this.dataSource = dataSource;
+        this.lagMonitor = lagMonitor;
+    }
+
+    public ReplicaRoutingDataSource getDataSource() {
+        return dataSource;
+    }
+
+    @Override
+    public void close() {
+        lagMonitor.close();
+        dataSource.close();
+    }
+}
@@ -0,0 +1,102 @@
+package study.datajpa.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 읽기 전용 트랜잭션(@Transactional(readOnly = true))은 레플리카로, 나머지는 primary로
+ *
+ * 커넥션을 실제로 꺼내는 시점에 트랜잭션의 readOnly 여부를 봐야 하므로
+ * 반드시 LazyConnectionDataSourceProxy로 감싸서 써야 함 (트랜잭션 시작시점엔 readOnly 표시가 아직 없음)
+ * 트랜잭션 밖의 호출(스키마 생성 등)과 읽기/쓰기 트랜잭션은 항상 primary
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaProperties.Selection selection;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder primaryFallbacks = new LongAdder();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<Replica> replicas,
+                                    ReplicaProperties.Selection selection, long maxLagMillis) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.selection = selection;
+        this.maxLagMillis = maxLagMillis;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : replicas) {
+            targets.put(replica.getName(), replica.getDataSource());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        Replica replica = select();
+        if (replica == null) {
+            //쓸 수 있는 레플리카가 없으면 primary에서 읽음
+            primaryFallbacks.increment();
+            return PRIMARY;
+        }
+        replica.markRouted();
+        return replica.getName();
+    }
+
+    private Replica select() {
+        if (selection == ReplicaProperties.Selection.LEAST_BUSY) {
+            return replicas.stream()
+                    .filter(replica -> replica.isUsable(maxLagMillis))
+                    .min(Comparator.comparingInt(Replica::activeConnections))
+                    .orElse(null);
+        }
+        //ROUND_ROBIN: 다음 차례부터 돌면서 쓸 수 있는 첫 레플리카
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.isUsable(maxLagMillis)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public long getPrimaryFallbackCount() {
+        return primaryFallbacks.sum();
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            replica.getDataSource().close();
+        }
+        primary.close();
+    }
+}
@@ -0,0 +1,23 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 커서 기반 페이징 응답
+ * totalCount는 일부러 제공하지 않음 (count 쿼리 안날리는게 목적)
+ */
+@Getter
+public class CursorResult<T> {
+
+    private final List<T> content;
+    private final String nextCursor; //다음 페이지 없으면 null
+    private final boolean hasNext;
+
+    public CursorResult(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+    }
+}
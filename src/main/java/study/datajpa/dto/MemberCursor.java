@@ -0,0 +1,64 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+import study.datajpa.entity.Member;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 키셋(seek) 페이징용 커서
+ * 마지막으로 내려준 회원의 정렬 키를 담아두고
+ * 클라이언트에는 내부 구조를 알 수 없도록 Base64로 인코딩한 토큰으로만 내려줌
+ */
+@Getter
+public class MemberCursor {
+
+    public enum Order {
+        ID, USERNAME
+    }
+
+    private final Order order;
+    private final Long id;
+    private final String username; //USERNAME 정렬일 때만 사용
+
+    private MemberCursor(Order order, Long id, String username) {
+        this.order = order;
+        this.id = id;
+        this.username = username;
+    }
+
+    /**
+     * 페이지의 마지막 회원으로 다음 페이지 커서 생성
+     */
+    public static MemberCursor of(Member last, Order order) {
+        return new MemberCursor(order, last.getId(), order == Order.USERNAME ? last.getUsername() : null);
+    }
+
+    public String encode() {
+        //username에 ':'이 들어갈 수 있으니 username은 항상 마지막에 둠
+        String raw = order == Order.USERNAME
+                ? order.name() + ":" + id + ":" + username
+                : order.name() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 잘못된 토큰이면 IllegalArgumentException
+     */
+    public static MemberCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            Order order = Order.valueOf(parts[0]);
+            Long id = Long.valueOf(parts[1]);
+            if (order == Order.USERNAME) {
+                return new MemberCursor(order, id, parts[2]);
+            }
+            return new MemberCursor(order, id, null);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("잘못된 커서입니다: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 회원 조회 결과 값 (불변)
+ * MemberLoader가 동시에 들어온 요청들에게 같은 인스턴스를 나눠주므로 엔티티 대신 사용
+ */
+@Getter
+@ToString
+public class MemberSummary {
+
+    private final Long id;
+    private final String username;
+    private final String teamName;
+
+    public MemberSummary(Long id, String username, String teamName) {
+        this.id = id;
+        this.username = username;
+        this.teamName = teamName;
+    }
+}
@@ -0,0 +1,19 @@
+package study.datajpa.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class TeamDto {
+
+    private Long id;
+    private String name;
+    private List<MemberDto> members;
+
+    public TeamDto(Long id, String name, List<MemberDto> members) {
+        this.id = id;
+        this.name = name;
+        this.members = members;
+    }
+}
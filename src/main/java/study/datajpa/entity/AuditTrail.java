@@ -0,0 +1,50 @@
+package study.datajpa.entity;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * BaseEntity 변경 이력 (app.audit-trail.enabled)
+ * AuditTrailWriter가 JdbcTemplate 배치로 직접 insert하므로 id는 DB가 채움(IDENTITY)
+ * 이력 자체는 BaseEntity를 상속하지 않음 (이력의 이력이 쌓이면 안됨)
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+@Table(indexes = @Index(name = "idx_audit_trail_entity", columnList = "entity_type, entity_id"))
+public class AuditTrail {
+
+    public enum Action {INSERT, UPDATE, DELETE}
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "audit_trail_id")
+    private Long id;
+
+    @Column(name = "entity_type")
+    private String entityType;
+
+    @Column(name = "entity_id")
+    private String entityId;
+
+    @Enumerated(EnumType.STRING)
+    private Action action;
+
+    private String changedBy;
+
+    private LocalDateTime changedAt;
+
+    public AuditTrail(String entityType, String entityId, Action action, String changedBy, LocalDateTime changedAt) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.action = action;
+        this.changedBy = changedBy;
+        this.changedAt = changedAt;
+    }
+}
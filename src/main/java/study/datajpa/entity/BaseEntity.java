@@ -7,6 +7,7 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import study.datajpa.audit.AuditTrailEntityListener;
 
 import javax.persistence.Column;
 import javax.persistence.EntityListeners;
@@ -14,7 +15,8 @@ import javax.persistence.MappedSuperclass;
 import java.time.LocalDateTime;
 
 //이벤트기반으로 동작한다는 표시
-@EntityListeners(AuditingEntityListener.class)
+//AuditTrailEntityListener: 변경 이력 (app.audit-trail.enabled)
+@EntityListeners({AuditingEntityListener.class, AuditTrailEntityListener.class})
 @MappedSuperclass
 @Getter
 public class BaseEntity extends BaseTimeEntity{
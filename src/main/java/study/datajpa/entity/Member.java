@@ -1,6 +1,8 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.stereotype.Component;
 
 import javax.persistence.*;
@@ -15,12 +17,27 @@ import javax.persistence.*;
         query = "select m from Member m where m.username = :username"
 )
 @NamedEntityGraph(name = "Member.all", attributeNodes = @NamedAttributeNode("team"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE) //2차 캐시 (username 조회 캐시 hit에서 id로 다시 읽을 때 DB 안감)
 public class Member extends BaseEntity{
 
-    @Id @GeneratedValue
+    /**
+     * allocationSize만큼 시퀀스를 한번에 당겨와서 메모리에서 id를 할당함 (pooled optimizer)
+     * persist마다 시퀀스 조회하러 안가도 되고, id가 미리 있으니 insert도 JDBC 배치로 묶임
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "member_seq_generator")
+    @SequenceGenerator(name = "member_seq_generator", sequenceName = "member_seq", allocationSize = 50)
     @Column(name="member_id")
     private Long id;
 
+    /**
+     * 낙관적 락 버전
+     * 수정시 where version = ? 조건이 붙고, 다른 트랜잭션이 먼저 바꿨으면 OptimisticLockException
+     */
+    @Version
+    private Long version;
+
     private String username;
 
     private int age;
@@ -0,0 +1,14 @@
+package study.datajpa.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import study.datajpa.entity.AuditTrail;
+
+import java.util.List;
+
+/**
+ * 변경 이력 조회용 (저장은 AuditTrailWriter가 배치로 함)
+ */
+public interface AuditTrailRepository extends JpaRepository<AuditTrail, Long> {
+
+    List<AuditTrail> findByEntityTypeAndEntityIdOrderByIdAsc(String entityType, String entityId);
+}
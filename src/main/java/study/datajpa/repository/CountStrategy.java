@@ -0,0 +1,29 @@
+package study.datajpa.repository;
+
+/**
+ * Page 조회시 totalCount를 어떻게 구할지
+ * count 쿼리는 전체 데이터를 세기 때문에 데이터가 많으면 컨텐츠 쿼리보다 비쌀 수 있음
+ */
+public enum CountStrategy {
+
+    /**
+     * 매번 count 쿼리 (기본 Page 동작)
+     */
+    EXACT,
+
+    /**
+     * count 쿼리 없이 limit + 1로 다음 페이지 유무만 확인 (Slice)
+     */
+    SLICE,
+
+    /**
+     * 쿼리 + 파라미터 단위로 짧은 시간동안 count 결과 캐시
+     * Member에 insert/update/delete 쿼리가 나간 트랜잭션이 커밋되면 무효화
+     */
+    CACHED,
+
+    /**
+     * DB 통계의 추정 row 수 사용 (테이블 전체 기준이라 조건이 있는 조회는 EXACT로 처리)
+     */
+    ESTIMATED
+}
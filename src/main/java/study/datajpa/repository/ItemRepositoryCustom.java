@@ -0,0 +1,28 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Item;
+
+import java.util.Collection;
+
+/**
+ * Item 대량 저장
+ * id를 직접 할당하는 엔티티라 save()는 isNew 판단이 틀리면 merge -> select가 row마다 나감
+ * 여기 메서드들은 영속성 컨텍스트를 거치지 않고 바로 SQL을 날림 (존재여부 select 없음)
+ * createdDate는 호출 시각으로 채움
+ */
+public interface ItemRepositoryCustom {
+
+    /**
+     * multi-row insert (insert into item values (..), (..), ...)
+     * 이미 있는 id가 섞여 있으면 예외
+     * @return insert된 row 수
+     */
+    int insertAll(Collection<Item> items);
+
+    /**
+     * 없는 id만 insert, 있는 id는 그대로 둠
+     * (Item은 createdDate 말고 갱신할 컬럼이 없어서 upsert = insert if absent)
+     * @return insert된 row 수
+     */
+    int upsertAll(Collection<Item> items);
+}
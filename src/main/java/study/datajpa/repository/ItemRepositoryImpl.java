@@ -0,0 +1,95 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Item;
+
+import javax.persistence.EntityManager;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class ItemRepositoryImpl implements ItemRepositoryCustom {
+
+    private final EntityManager em;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize;
+
+    @Override
+    @Transactional
+    public int insertAll(Collection<Item> items) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Item> list = new ArrayList<>(items);
+
+        //batchSize개씩 한 문장에 담음, SQL 모양은 마지막 묶음만 달라짐
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            int inserted = 0;
+            for (int from = 0; from < list.size(); from += batchSize) {
+                List<Item> chunk = list.subList(from, Math.min(from + batchSize, list.size()));
+                try (PreparedStatement ps = connection.prepareStatement(multiRowInsertSql(chunk.size()))) {
+                    int index = 1;
+                    for (Item item : chunk) {
+                        ps.setString(index++, item.getId());
+                        ps.setTimestamp(index++, now);
+                    }
+                    inserted += ps.executeUpdate();
+                }
+            }
+            return inserted;
+        });
+    }
+
+    @Override
+    @Transactional
+    public int upsertAll(Collection<Item> items) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        //존재여부 확인은 DB 안에서 MERGE ... ON 으로 처리하고, 문장은 JDBC 배치로 묶음
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            int inserted = 0;
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "merge into item t" +
+                            " using (select cast(? as varchar) as id from dual) s on (t.id = s.id)" +
+                            " when not matched then insert (id, created_date) values (s.id, ?)")) {
+                int pending = 0;
+                for (Item item : items) {
+                    ps.setString(1, item.getId());
+                    ps.setTimestamp(2, now);
+                    ps.addBatch();
+                    if (++pending == batchSize) {
+                        inserted += sum(ps.executeBatch());
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    inserted += sum(ps.executeBatch());
+                }
+            }
+            return inserted;
+        });
+    }
+
+    private static String multiRowInsertSql(int rows) {
+        StringBuilder sql = new StringBuilder("insert into item (id, created_date) values ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+        }
+        return sql.toString();
+    }
+
+    private static int sum(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            //드라이버가 개수를 모르면 SUCCESS_NO_INFO(-2)를 줄 수 있음
+            total += Math.max(count, 0);
+        }
+        return total;
+    }
+}
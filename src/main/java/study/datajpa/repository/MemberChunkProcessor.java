@@ -0,0 +1,16 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Member;
+
+import java.util.List;
+
+/**
+ * MemberRepositoryCustom.processInChunks에 넘기는 청크 처리 로직
+ * 넘어오는 회원은 영속성 컨텍스트에 없는 엔티티라 값을 바꿔도 자동으로 update 안됨
+ * -> 저장할 회원만 골라서 반환 (없으면 빈 목록)
+ */
+@FunctionalInterface
+public interface MemberChunkProcessor {
+
+    List<Member> process(List<Member> chunk);
+}
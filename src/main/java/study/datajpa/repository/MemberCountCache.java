@@ -0,0 +1,97 @@
+package study.datajpa.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * CountStrategy.CACHED 용 totalCount 캐시
+ * key는 "쿼리명:파라미터" 형태로 만들어서 사용
+ *
+ * Member 쓰기가 나간 트랜잭션은
+ * - 커밋 전까지는 캐시를 안씀 (커밋 안된 count가 캐시에 들어가지 않게)
+ * - 커밋 후에 캐시를 비움 (롤백이면 캐시는 그대로)
+ */
+@Component
+public class MemberCountCache {
+
+    //Member 쓰기가 있었던 트랜잭션 표시용 리소스 키
+    private final Object writtenKey = new Object();
+
+    private final long ttlNanos;
+    private final ConcurrentMap<String, CachedTotal> totals = new ConcurrentHashMap<>();
+
+    //count 도중에 무효화가 일어나면 그 결과는 캐시에 넣지 않기 위한 세대 번호
+    private final AtomicLong generation = new AtomicLong();
+
+    public MemberCountCache(@Value("${app.paging.count-cache-ttl:10s}") Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public long get(String key, LongSupplier counter) {
+        if (TransactionSynchronizationManager.hasResource(writtenKey)) {
+            return counter.getAsLong();
+        }
+
+        long now = System.nanoTime();
+        CachedTotal cached = totals.get(key);
+        if (cached != null && cached.expiresAt - now > 0) {
+            return cached.total;
+        }
+
+        long startGeneration = generation.get();
+        long total = counter.getAsLong();
+        if (generation.get() == startGeneration) {
+            totals.put(key, new CachedTotal(total, now + ttlNanos));
+        }
+        return total;
+    }
+
+    /**
+     * Member 쓰기 SQL이 나가면 호출됨 (MemberWriteStatementInspector)
+     * 트랜잭션 안이면 커밋 후에 무효화, 밖이면(auto commit) 바로 무효화
+     */
+    public void onMemberWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateAll();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(writtenKey)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(writtenKey, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                invalidateAll();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(writtenKey);
+            }
+        });
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        totals.clear();
+    }
+
+    private static class CachedTotal {
+        private final long total;
+        private final long expiresAt;
+
+        private CachedTotal(long total, long expiresAt) {
+            this.total = total;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -97,7 +97,7 @@ public class MemberJpaRepository {
      * 벌크성 수정쿼리
      */
     public int bulkAgePlus(int age) {
-        return em.createQuery("update Member m set m.age = m.age+1 where m.age >= : age")
+        return em.createQuery("update Member m set m.age = m.age+1, m.version = m.version+1 where m.age >= : age")
                 .setParameter("age",age)
                 .executeUpdate(); //이거 실행하면, 응답값으로 개수가 나옴
     }
@@ -0,0 +1,178 @@
+package study.datajpa.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberSummary;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 동시에 들어오는 findById 요청 합치기
+ * - 같은 id를 동시에 조회하면 진행중인 조회 하나를 같이 기다림 (single-flight)
+ * - 진행중인 조회가 없으면 기다리지 않고 바로 조회
+ * - 조회가 진행중이면 묶음을 열고, window 안에 들어온 요청을 모아서 where id in (...) 쿼리 한번으로 조회
+ *
+ * 조회는 별도 스레드가 아니라 요청 스레드에서 실행함
+ * (묶음을 연 요청이 window만큼 기다렸다가 실행, max-batch-size가 차면 채운 요청이 바로 실행)
+ * -> DB 동시성은 요청 스레드 수만큼, StatementCounter/RepositoryMethodContext 같은 스레드 로컬도 유지됨
+ *
+ * 다른 요청(다른 스레드)과 결과를 공유하므로 엔티티가 아니라 불변 값(MemberSummary)을 돌려줌
+ * 엔티티가 필요하면 호출한 쪽 영속성 컨텍스트에서 memberRepository.findById로 읽을 것
+ * 조회는 새 읽기 전용 트랜잭션에서 팀 이름까지 DTO 쿼리 한번으로 함
+ */
+@Component
+public class MemberLoader {
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate loadTx;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    //조회 진행중인 id (같은 id 요청은 여기 future를 공유)
+    private final ConcurrentMap<Long, CompletableFuture<Optional<MemberSummary>>> inFlight = new ConcurrentHashMap<>();
+
+    //다음 IN 쿼리에 실릴 id, 실행중인 조회 수
+    private final Object lock = new Object();
+    private Map<Long, CompletableFuture<Optional<MemberSummary>>> pending = new HashMap<>();
+    private int loading;
+
+    /**
+     * 테스트에서 묶음/조회 시점을 제어하기 위한 지점 (기본은 아무것도 안함)
+     */
+    interface Hooks {
+        default void queued(int pendingSize) {
+        }
+
+        //window가 지나고 모인 id를 조회하기 직전
+        default void beforeFlush() {
+        }
+
+        default void beforeLoad(Set<Long> ids) {
+        }
+    }
+
+    volatile Hooks hooks = new Hooks() {
+    };
+
+    public MemberLoader(MemberRepository memberRepository,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${app.member-loader.window:2ms}") Duration window,
+                        @Value("${app.member-loader.max-batch-size:100}") int maxBatchSize) {
+        this.memberRepository = memberRepository;
+        this.loadTx = new TransactionTemplate(transactionManager);
+        this.loadTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.loadTx.setReadOnly(true);
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public Optional<MemberSummary> findSummary(Long id) {
+        CompletableFuture<Optional<MemberSummary>> future = new CompletableFuture<>();
+        CompletableFuture<Optional<MemberSummary>> existing = inFlight.putIfAbsent(id, future);
+        if (existing != null) {
+            return join(existing);
+        }
+
+        Map<Long, CompletableFuture<Optional<MemberSummary>>> batch = null;
+        Map<Long, CompletableFuture<Optional<MemberSummary>>> opened = null;
+        int queued = 0;
+        synchronized (lock) {
+            if (loading == 0 && pending.isEmpty()) {
+                //한가하면 바로 조회
+                batch = Collections.singletonMap(id, future);
+                loading++;
+            } else {
+                pending.put(id, future);
+                queued = pending.size();
+                if (pending.size() >= maxBatchSize) {
+                    batch = takePending();
+                } else if (pending.size() == 1) {
+                    opened = pending;
+                }
+            }
+        }
+
+        if (queued > 0) {
+            hooks.queued(queued);
+        }
+        if (batch != null) {
+            load(batch);
+        } else if (opened != null) {
+            flushAfterWindow(opened);
+        }
+        return join(future);
+    }
+
+    /**
+     * 묶음을 연 요청이 window만큼 기다렸다가 그동안 모인 id를 조회
+     * (그 사이 max-batch-size가 차서 이미 실행됐으면 할 일 없음)
+     */
+    private void flushAfterWindow(Map<Long, CompletableFuture<Optional<MemberSummary>>> opened) {
+        long deadline = System.nanoTime() + windowNanos;
+        for (long remaining = windowNanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(remaining);
+        }
+        hooks.beforeFlush();
+
+        Map<Long, CompletableFuture<Optional<MemberSummary>>> batch = null;
+        synchronized (lock) {
+            if (pending == opened && !pending.isEmpty()) {
+                batch = takePending();
+            }
+        }
+        if (batch != null) {
+            load(batch);
+        }
+    }
+
+    //lock 안에서 호출
+    private Map<Long, CompletableFuture<Optional<MemberSummary>>> takePending() {
+        Map<Long, CompletableFuture<Optional<MemberSummary>>> batch = pending;
+        pending = new HashMap<>();
+        loading++;
+        return batch;
+    }
+
+    private void load(Map<Long, CompletableFuture<Optional<MemberSummary>>> batch) {
+        try {
+            hooks.beforeLoad(batch.keySet());
+            Map<Long, MemberSummary> found = loadTx.execute(status ->
+                    memberRepository.findSummariesByIds(batch.keySet()).stream()
+                            .collect(Collectors.toMap(MemberSummary::getId, Function.identity())));
+            batch.forEach((id, future) -> future.complete(Optional.ofNullable(found.get(id))));
+        } catch (RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        } finally {
+            batch.forEach(inFlight::remove);
+            synchronized (lock) {
+                loading--;
+            }
+        }
+    }
+
+    private static Optional<MemberSummary> join(CompletableFuture<Optional<MemberSummary>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
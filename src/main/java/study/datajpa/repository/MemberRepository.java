@@ -5,7 +5,9 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSummary;
 import study.datajpa.entity.Member;
 
 import javax.persistence.LockModeType;
@@ -34,6 +36,8 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     //관례적으로 엔티티.메서드이름으로 먼저 네임드 쿼리를 먼저 찾고 없으면
     //메서드 쿼리를 생성해서 실행함
     //@Query(name = "Member.findByUsername")
+    //조회 결과 캐시 (app.cache.member-query.enabled=true 일때, MemberQueryCacheAspect)
+    //회원 id만 캐시하고 해당 username 회원이 저장/삭제되면 그 항목만 제거됨
     List<Member> findByUsername(@Param("username") String username);
 
     /**
@@ -58,12 +62,16 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     List<MemberDto> findMemberDto();
 
     /**
-     * 컬렉션 파라미터 바인딩
-     * IN절 사용
+     * 여러 팀의 회원을 IN 쿼리 한번으로 조회 (팀 목록 + 회원 목록 조립용)
+     * m.team.id는 FK 컬럼이라 team 조인 안함
      */
-    @Query("select m from Member m where m.username in :names")
-    List<Member> findByNames(@Param("names") Collection<String> names);
+    @Query("select m from Member m where m.team.id in :teamIds")
+    List<Member> findByTeamIds(@Param("teamIds") Collection<Long> teamIds);
 
+    /**
+     * 컬렉션 파라미터 바인딩(findByNames)은 목록 크기에 따라 실행 방식을 바꾸도록
+     * MemberRepositoryCustom으로 옮김
+     */
 
     /**
      * 반환타입을 유연하게 쓰는 것을 
@@ -88,14 +96,64 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
             countQuery = "select count(m.username) from Member m")
     Page<Member> findByAge(int age, Pageable pageable);
 
+    /**
+     * 키셋(seek) 페이징
+     * offset으로 앞 페이지 row를 읽고 버리는 대신 마지막으로 본 키 다음부터 조회함
+     * 페이지가 아무리 깊어져도 인덱스 탐색 + limit 만큼만 읽음
+     * Pageable은 limit 용도로만 사용 (PageRequest.of(0, size)), 정렬은 쿼리에 고정
+     * 반환타입이 Slice라서 count 쿼리도 안나감
+     */
+    @Query("select m from Member m where m.id > :lastId order by m.id asc")
+    Slice<Member> findNextById(@Param("lastId") long lastId, Pageable pageable);
+
+    /**
+     * (username, id) 키셋 페이징 첫 페이지
+     * username이 null인 회원은 키 비교가 안되므로 제외
+     */
+    @Query("select m from Member m where m.username is not null order by m.username asc, m.id asc")
+    Slice<Member> findFirstPageOrderByUsername(Pageable pageable);
+
+    @Query("select m from Member m" +
+            " where m.username > :username or (m.username = :username and m.id > :lastId)" +
+            " order by m.username asc, m.id asc")
+    Slice<Member> findNextByUsername(@Param("username") String username, @Param("lastId") long lastId, Pageable pageable);
+
     /**
      * 벌크성 수정쿼리
      * 벌크성 수정쿼리 수행 후에는 반드시 영속성 컨텍스트 clear해줘야함
      */
+    @Transactional //쿼리 메서드 기본은 readOnly 트랜잭션이라 수정 쿼리는 명시
     @Modifying(clearAutomatically = true) //이게 있어야 executeUpdate실행 (아니면 getResultList 이런거 실행해버림)
-    @Query("update Member m set m.age = m.age + 1 where age >= :age")
+    //벌크 쿼리는 @Version을 안올려주므로 직접 올려야 동시에 수정하던 쪽이 충돌을 감지함
+    @Query("update Member m set m.age = m.age + 1, m.version = m.version + 1 where age >= :age")
     int bulkAgePlus(@Param("age") int age);
 
+    /**
+     * id 범위를 잘라서 실행하는 벌크 수정 (MemberBulkService에서 청크 단위로 호출)
+     * 한번에 잡는 row lock 범위를 (fromId, toId]로 제한
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Member m set m.age = m.age + 1, m.version = m.version + 1 where m.age >= :age and m.id > :fromId and m.id <= :toId")
+    int bulkAgePlusInRange(@Param("age") int age, @Param("fromId") long fromId, @Param("toId") long toId);
+
+    /**
+     * MemberLoader용 (여러 요청이 결과를 공유하므로 엔티티 대신 불변 DTO)
+     */
+    @Query("select new study.datajpa.dto.MemberSummary(m.id, m.username, t.name)" +
+            " from Member m left join m.team t where m.id in :ids")
+    List<MemberSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select max(m.id) from Member m")
+    Long findMaxId();
+
+    /**
+     * fromId 다음의 실제 id들 (pageable 크기만큼) - 청크 경계를 실제 id로 정하기 위함
+     * id가 듬성듬성해도 청크마다 대상 row 수가 일정함
+     */
+    @Query("select m.id from Member m where m.id > :fromId and m.id <= :maxId order by m.id")
+    List<Long> findIdsAfter(@Param("fromId") long fromId, @Param("maxId") long maxId, Pageable pageable);
+
     /**
      * 페치 조인
      * 매번 jpql 써야하나? 그러면 메서드 이름으로 쿼리생설할때는 어떡함?
@@ -130,22 +188,20 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
      * 쿼리힌트 name과 value 둘다 문자열
      * JPA가 Hibernate에게 넘길 수 있게 구멍을 열어둔 것임
      */
+    //읽기 전용 트랜잭션이라 레플리카 라우팅을 켜면 레플리카에서 읽음 (app.datasource.replica)
+    //읽기/쓰기 트랜잭션 안에서 호출하면 그 트랜잭션의 커넥션(primary)을 그대로 씀
+    @Transactional(readOnly = true)
     @QueryHints(value = @QueryHint(name = "org.hibernate.readOnly", value = "true"))
     Member findReadOnlyByUsername(String username);
 
     /**
      * JPA에서 제공하는 Lock기능
+     * 같은 username 쓰기가 전부 줄을 서게 되므로 경합이 심하면
+     * @Version 낙관적 락 + 재시도(MemberUpdateService.updateOptimistic)를 고려
      */
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     List<Member> findLockByUsername(String username);
 
-    /**
-     * Projection
-     * 반환타입에 정의해둔 Projection속성 인터페이스 넣어주면 끝
-     * 제네릭 타입 사용가능
-     */
-    <T> List<T> findProjectionsByUsername(@Param("username") String username, Class<T> type);
-
     /**
      * Native Query
      */
@@ -1,10 +1,78 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 //사용자 정의 리포지토리 인터페이스
 public interface MemberRepositoryCustom {
     List<Member> findMemberCustom();
+
+    /**
+     * 컬렉션 파라미터 바인딩
+     * IN절 사용 (select m from Member m where m.username in :names)
+     * - IN 파라미터 개수는 2의 제곱수로 패딩됨 (in_clause_parameter_padding, SQL/실행계획 캐시 재사용)
+     * - app.in-list.chunk-size 보다 크면 나눠서 실행하고 결과를 합침
+     * - app.in-list.array-threshold 보다 크면 이름 배열 하나를 H2 TABLE 함수로 조인 (쓰기 없음, 레플리카에서도 가능)
+     * - null이나 빈 목록이면 빈 결과
+     * 결과 캐시(MemberQueryCacheAspect) 키는 이름 집합 (순서, 중복 무시), 너무 큰 목록은 캐시 안함
+     */
+    List<Member> findByNames(Collection<String> names);
+
+    /**
+     * count 쿼리 전략을 고를 수 있는 페이징
+     * SLICE면 SliceImpl, 나머지는 Page 구현체가 반환됨
+     */
+    Slice<Member> findAll(Pageable pageable, CountStrategy countStrategy);
+
+    Slice<Member> findByAge(int age, Pageable pageable, CountStrategy countStrategy);
+
+    /**
+     * findMemberDto + 페이징
+     * 생성자 표현식으로 MemberDto(팀 이름 포함)를 바로 조회 -> 엔티티, 스냅샷 안만듦
+     * 팀 없는 회원도 나오도록 left join, count 쿼리는 조인 없이 회원만 셈
+     */
+    Slice<MemberDto> findMemberDtos(Pageable pageable, CountStrategy countStrategy);
+
+    /**
+     * 대량 저장용
+     * JDBC 배치 크기마다 flush + clear 해서 영속성 컨텍스트가 계속 커지지 않게 함
+     * 새로운 회원만 넘겨야 하고, 호출한 쪽의 영속성 컨텍스트도 같이 비워짐
+     * @return 저장한 회원 수
+     */
+    long saveAllBatched(Iterable<Member> members);
+
+    /**
+     * 전체 회원을 List로 올리지 않고 커서로 한건씩 흘려보냄 (team은 페치 조인)
+     * fetchSize만큼씩 JDBC에서 가져오고, 같은 단위로 이미 넘겨준 row만 영속성 컨텍스트에서 떼어내서 힙 사용량이 일정함
+     * (em.clear가 아니라서 호출한 쪽이 들고 있던 엔티티, flush 안한 변경은 그대로)
+     * 읽기 전용으로 조회하므로 스냅샷도 안만듦
+     * 트랜잭션 안에서 써야하고, 다 쓰면 반드시 close (try-with-resources)
+     */
+    Stream<Member> streamAll(int fetchSize);
+
+    /**
+     * 전체 회원 배치 처리 (야간 작업용)
+     * StatelessSession으로 id 키셋 청크(chunkSize건, team 페치 조인)씩 읽어서 processor에 넘기고
+     * processor가 반환한 회원만 update (JDBC 배치)
+     * - 1차 캐시, dirty checking, 엔티티 리스너(auditing, 변경 이력)를 안거침 -> 회원 수와 상관없이 메모리 일정
+     * - 청크마다 자체 트랜잭션으로 커밋 (호출한 쪽 트랜잭션과 무관), 실패하면 그 청크만 롤백
+     * - @Version은 올라가고 충돌하면 그 청크가 실패함
+     * @return 읽은 회원 수
+     */
+    long processInChunks(int chunkSize, MemberChunkProcessor processor);
+
+    /**
+     * Projection
+     * 반환타입에 정의해둔 Projection속성 인터페이스 넣어주면 끝
+     * 스프링 데이터 프로젝션(JDK 프록시) 대신 GeneratedProjectionFactory로 만듦
+     * 인터페이스면 생성된 구현 클래스, 클래스면 생성자 프로젝션
+     * 닫힌 프로젝션이면 프로젝션이 쓰는 컬럼만 select (중첩은 left join), 엔티티는 안만듦
+     */
+    <T> List<T> findProjectionsByUsername(String username, Class<T> type);
 }
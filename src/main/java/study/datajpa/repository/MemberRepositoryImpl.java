@@ -1,20 +1,390 @@
 package study.datajpa.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.repository.cache.MemberQueryCache;
+import study.datajpa.repository.projection.GeneratedProjectionFactory;
+import study.datajpa.repository.projection.RowProjectionMapper;
 
 import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 //생성자 주입
 @RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberRepositoryCustom{
 
     private final EntityManager em;
+    private final MemberCountCache countCache;
+    private final GeneratedProjectionFactory projectionFactory;
+    private final MemberQueryCache memberQueryCache;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize;
+
+    @Value("${app.in-list.chunk-size:1000}")
+    private int inListChunkSize;
+
+    @Value("${app.in-list.array-threshold:10000}")
+    private int arrayThreshold;
 
     @Override
     public List<Member> findMemberCustom() {
         return em.createQuery("select m from Member m")
                 .getResultList();
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Member> findByNames(Collection<String> names) {
+        if (names == null || names.isEmpty()) {
+            return new ArrayList<>();
+        }
+        //중복 이름은 결과에 영향이 없으니 제거
+        List<String> distinctNames = new ArrayList<>(new LinkedHashSet<>(names));
+        if (distinctNames.size() > arrayThreshold) {
+            return findByNamesUsingArray(distinctNames);
+        }
+
+        //청크끼리 이름이 겹치지 않으므로 결과도 겹치지 않음
+        return findInChunks("select m from Member m where m.username in :values", distinctNames);
+    }
+
+    /**
+     * 이름이 아주 많으면 IN 파라미터 대신 배열 하나로 넘겨서 H2 TABLE 함수로 조인
+     * 쓰기(임시 테이블 등)가 없어서 읽기 전용 트랜잭션(레플리카)에서도 실행 가능
+     * 네이티브 쿼리로 id만 찾고, 엔티티는 id IN 청크로 조회
+     */
+    private List<Member> findByNamesUsingArray(List<String> names) {
+        List<Long> ids = em.unwrap(Session.class).doReturningWork(connection -> {
+            List<Long> found = new ArrayList<>();
+            try (PreparedStatement ps = connection.prepareStatement(
+                    "select m.member_id from table(name varchar = ?) f join member m on m.username = f.name")) {
+                ps.setObject(1, names.toArray());
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        found.add(rs.getLong(1));
+                    }
+                }
+            }
+            return found;
+        });
+        return findInChunks("select m from Member m where m.id in :values", ids);
+    }
+
+    private <T> List<Member> findInChunks(String jpql, List<T> values) {
+        List<Member> result = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += inListChunkSize) {
+            List<T> chunk = values.subList(from, Math.min(from + inListChunkSize, values.size()));
+            result.addAll(em.createQuery(jpql, Member.class)
+                    .setParameter("values", chunk)
+                    .getResultList());
+        }
+        return result;
+    }
+
+    @Override
+    public Slice<Member> findAll(Pageable pageable, CountStrategy countStrategy) {
+        TypedQuery<Member> query = em.createQuery(
+                QueryUtils.applySorting("select m from Member m", pageable.getSort(), "m"), Member.class);
+
+        return page(query, pageable, countStrategy, "findAll",
+                () -> em.createQuery("select count(m) from Member m", Long.class)
+                        .getSingleResult());
+    }
+
+    @Override
+    public Slice<Member> findByAge(int age, Pageable pageable, CountStrategy countStrategy) {
+        TypedQuery<Member> query = em.createQuery(
+                QueryUtils.applySorting("select m from Member m where m.age = :age", pageable.getSort(), "m"), Member.class)
+                .setParameter("age", age);
+
+        //ESTIMATED는 테이블 전체 추정치라 age 조건이 있으면 의미가 없음 -> 정확한 count
+        CountStrategy strategy = countStrategy == CountStrategy.ESTIMATED ? CountStrategy.EXACT : countStrategy;
+        return page(query, pageable, strategy, "findByAge:" + age,
+                () -> em.createQuery("select count(m) from Member m where m.age = :age", Long.class)
+                        .setParameter("age", age)
+                        .getSingleResult());
+    }
+
+    @Override
+    public Slice<MemberDto> findMemberDtos(Pageable pageable, CountStrategy countStrategy) {
+        TypedQuery<MemberDto> query = em.createQuery(QueryUtils.applySorting(
+                "select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t",
+                pageable.getSort(), "m"), MemberDto.class);
+
+        //left join이라 회원 수 = row 수, findAll과 같은 count라서 캐시 키도 공유
+        return page(query, pageable, countStrategy, "findAll",
+                () -> em.createQuery("select count(m) from Member m", Long.class)
+                        .getSingleResult());
+    }
+
+    @Override
+    @Transactional
+    public long saveAllBatched(Iterable<Member> members) {
+        long count = 0;
+        for (Member member : members) {
+            em.persist(member);
+            //배치 크기만큼 모이면 insert 배치 실행하고 1차 캐시 비움
+            if (++count % batchSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        return count;
+    }
+
+    @Override
+    public Stream<Member> streamAll(int fetchSize) {
+        Session session = em.unwrap(Session.class);
+        //스트림 열기 전부터 영속성 컨텍스트에 있던 엔티티는 호출한 쪽 것이므로 떼어내지 않음
+        Set<Object> callerEntities = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Map.Entry<Object, EntityEntry> entry :
+                session.unwrap(SessionImplementor.class).getPersistenceContext().reentrantSafeEntityEntries()) {
+            callerEntities.add(entry.getKey());
+        }
+
+        ScrollableResults scroll = session
+                .createQuery("select m from Member m left join fetch m.team order by m.id", Member.class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE)
+                .scroll(ScrollMode.FORWARD_ONLY);
+
+        Spliterator<Member> spliterator = new Spliterators.AbstractSpliterator<Member>(
+                Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private final List<Member> emitted = new ArrayList<>(fetchSize);
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Member> action) {
+                //이전 청크는 이미 다 넘겨줬으니 그 row들만 1차 캐시에서 떼어냄 (em.clear는 호출한 쪽 엔티티/변경까지 날림)
+                if (emitted.size() >= fetchSize) {
+                    for (Member member : emitted) {
+                        detachStreamed(member, callerEntities);
+                        detachStreamed(member.getTeam(), callerEntities);
+                    }
+                    emitted.clear();
+                }
+                if (!scroll.next()) {
+                    return false;
+                }
+                Member member = (Member) scroll.get(0);
+                emitted.add(member);
+                action.accept(member);
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false)
+                .onClose(scroll::close);
+    }
+
+    /**
+     * 프록시는 스트림 전에 이미 있던 것 (페치 조인은 실제 엔티티를 만듦) -> 호출한 쪽 것이라 그대로 둠
+     */
+    private void detachStreamed(Object entity, Set<Object> callerEntities) {
+        if (entity == null || entity instanceof HibernateProxy || callerEntities.contains(entity)) {
+            return;
+        }
+        if (em.contains(entity)) {
+            em.detach(entity);
+        }
+    }
+
+    @Override
+    public long processInChunks(int chunkSize, MemberChunkProcessor processor) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize는 1 이상이어야 합니다: " + chunkSize);
+        }
+        long count = 0;
+        long lastId = 0;
+        try (StatelessSession session = em.getEntityManagerFactory().unwrap(SessionFactory.class).openStatelessSession()) {
+            session.setJdbcBatchSize(batchSize);
+            while (true) {
+                List<Member> chunk;
+                List<Member> written;
+                //processor가 username을 바꿀 수 있으니 바꾸기 전 이름도 기억해둠 (id -> username)
+                Map<Long, String> previousUsernames = new HashMap<>();
+                Transaction tx = session.beginTransaction();
+                try {
+                    chunk = session.createQuery(
+                            "select m from Member m left join fetch m.team where m.id > :lastId order by m.id", Member.class)
+                            .setParameter("lastId", lastId)
+                            .setMaxResults(chunkSize)
+                            .getResultList();
+                    if (chunk.isEmpty()) {
+                        tx.commit();
+                        return count;
+                    }
+                    for (Member member : chunk) {
+                        previousUsernames.put(member.getId(), member.getUsername());
+                    }
+                    written = processor.process(chunk);
+                    for (Member member : written) {
+                        session.update(member);
+                    }
+                    //모아둔 update 배치는 커밋 직전에 실행됨
+                    tx.commit();
+                } catch (RuntimeException e) {
+                    if (tx.isActive()) {
+                        tx.rollback();
+                    }
+                    throw e;
+                }
+
+                //StatelessSession은 캐시를 안거치므로 Member 2차 캐시, username 조회 캐시는 직접 정리 (바뀌기 전/후 이름 둘다)
+                for (Member member : written) {
+                    em.getEntityManagerFactory().getCache().evict(Member.class, member.getId());
+                    String previous = previousUsernames.get(member.getId());
+                    memberQueryCache.evictUsername(previous);
+                    if (!Objects.equals(previous, member.getUsername())) {
+                        memberQueryCache.evictUsername(member.getUsername());
+                    }
+                }
+                count += chunk.size();
+                lastId = chunk.get(chunk.size() - 1).getId();
+            }
+        }
+    }
+
+    @Override
+    public <T> List<T> findProjectionsByUsername(String username, Class<T> type) {
+        if (projectionFactory.supportsRows(type)) {
+            return findProjectionColumns(projectionFactory.rowMapperFor(type), "username", username);
+        }
+
+        //열린 프로젝션은 어떤 값을 쓸지 모르니 엔티티를 올려서 변환
+        //프로젝션 만들고 나면 엔티티는 버리므로 스냅샷 안만들게 읽기 전용
+        List<Member> members = em.createQuery(
+                "select m from Member m left join fetch m.team where m.username = :username", Member.class)
+                .setParameter("username", username)
+                .setHint(QueryHints.READ_ONLY, true)
+                .getResultList();
+
+        List<T> result = new ArrayList<>(members.size());
+        for (Member member : members) {
+            result.add(projectionFactory.createProjection(type, member));
+        }
+        return result;
+    }
+
+    /**
+     * 프로젝션이 읽는 경로만 select (엔티티, 스냅샷 안만듦)
+     * "team.name" 같은 중첩 경로는 team을 left join 해서 컬럼만 가져옴 (팀 없는 회원도 나오도록)
+     * 결과 컬럼 순서가 mapper.paths() 순서라서 바로 fromRow
+     */
+    private <T> List<T> findProjectionColumns(RowProjectionMapper<T> mapper, String attribute, Object value) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Member> m = query.from(Member.class);
+
+        Map<String, From<?, ?>> joins = new HashMap<>();
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String path : mapper.paths()) {
+            String[] parts = path.split("\\.");
+            From<?, ?> from = m;
+            String joinPath = "";
+            for (int i = 0; i < parts.length - 1; i++) {
+                From<?, ?> parent = from;
+                String attributeName = parts[i];
+                joinPath = joinPath.isEmpty() ? attributeName : joinPath + "." + attributeName;
+                from = joins.computeIfAbsent(joinPath, key -> parent.join(attributeName, JoinType.LEFT));
+            }
+            selections.add(from.get(parts[parts.length - 1]));
+        }
+        query.multiselect(selections)
+                .where(cb.equal(m.get(attribute), value));
+
+        List<Tuple> tuples = em.createQuery(query).getResultList();
+        List<T> result = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            result.add(mapper.fromRow(tuple.toArray()));
+        }
+        return result;
+    }
+
+    /**
+     * 컨텐츠 쿼리는 공통으로 실행하고 totalCount만 전략별로 구함
+     * PageableExecutionUtils는 첫 페이지 컨텐츠가 pageSize보다 적거나 하면 count 쿼리 자체를 생략해줌
+     */
+    private <T> Slice<T> page(TypedQuery<T> contentQuery, Pageable pageable, CountStrategy countStrategy,
+                              String countKey, LongSupplier exactCount) {
+        if (pageable.isPaged()) {
+            contentQuery.setFirstResult((int) pageable.getOffset());
+            //SLICE는 다음 페이지 확인용으로 한개 더 가져옴
+            contentQuery.setMaxResults(countStrategy == CountStrategy.SLICE
+                    ? pageable.getPageSize() + 1
+                    : pageable.getPageSize());
+        }
+        List<T> content = contentQuery.getResultList();
+
+        switch (countStrategy) {
+            case SLICE:
+                boolean hasNext = pageable.isPaged() && content.size() > pageable.getPageSize();
+                return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content,
+                        pageable, hasNext);
+            case CACHED:
+                return PageableExecutionUtils.getPage(content, pageable, () -> countCache.get(countKey, exactCount));
+            case ESTIMATED:
+                //추정치가 실제보다 작아도 PageImpl이 offset + content 크기로 보정해줌
+                return PageableExecutionUtils.getPage(content, pageable, this::estimateMemberRows);
+            default:
+                return PageableExecutionUtils.getPage(content, pageable, exactCount);
+        }
+    }
+
+    /**
+     * H2 통계의 추정 row 수 (테이블 전체 기준, 조건 없는 조회에서만 사용)
+     */
+    private long estimateMemberRows() {
+        Number estimate = (Number) em.createNativeQuery(
+                "select row_count_estimate from information_schema.tables" +
+                        " where table_schema = 'PUBLIC' and table_name = 'MEMBER'")
+                .getSingleResult();
+        return estimate.longValue();
+    }
 }
@@ -0,0 +1,30 @@
+package study.datajpa.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.regex.Pattern;
+
+/**
+ * 하이버네이트가 만드는 모든 SQL을 실행 전에 훑어보고
+ * member 테이블에 쓰기가 나가면 count 캐시 무효화 (트랜잭션 안이면 커밋 후)
+ * save, delete 뿐 아니라 bulkAgePlus 같은 벌크 쿼리, 네이티브 쿼리까지 다 잡힘
+ */
+public class MemberWriteStatementInspector implements StatementInspector {
+
+    private static final Pattern MEMBER_WRITE = Pattern.compile(
+            "^\\s*(insert\\s+into|update|delete\\s+from)\\s+member\\b", Pattern.CASE_INSENSITIVE);
+
+    private final MemberCountCache countCache;
+
+    public MemberWriteStatementInspector(MemberCountCache countCache) {
+        this.countCache = countCache;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (MEMBER_WRITE.matcher(sql).find()) {
+            countCache.onMemberWrite();
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,123 @@
+package study.datajpa.repository.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * username 조회 결과 캐시 (MemberQueryCacheAspect)
+ * 캐시 이름과 무효화 로직을 한곳에 모아둠
+ *
+ * 엔티티 대신 회원 id 목록만 저장함 (공유되는 준영속 엔티티를 여러 스레드가 같이 쓰지 않도록)
+ * 크기/만료는 QueryCacheConfig (app.cache.member-query.*)
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberQueryCache {
+
+    public static final String FIND_BY_USERNAME = "member.findByUsername";
+    public static final String FIND_OPTIONAL_BY_USERNAME = "member.findOptionalByUsername";
+    public static final String FIND_BY_NAMES = "member.findByNames";
+
+    private static final String[] CACHE_NAMES = {FIND_BY_USERNAME, FIND_OPTIONAL_BY_USERNAME, FIND_BY_NAMES};
+
+    private final CacheManager cacheManager;
+
+    //무효화마다 증가, DB 조회 도중에 바뀌었으면 그 결과는 이미 지난 값일 수 있어서 캐시에 안넣음
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * findByNames 캐시 키
+     * 순서와 중복이 달라도 같은 이름 목록이면 같은 키 (null은 빈 목록과 같음)
+     */
+    public static Set<String> namesKey(Collection<String> names) {
+        return names == null ? new TreeSet<>() : new TreeSet<>(names);
+    }
+
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * 캐시된 회원 id 목록 (없으면 null)
+     */
+    @SuppressWarnings("unchecked")
+    public List<Long> getIds(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        Cache.ValueWrapper cached = cache == null ? null : cache.get(key);
+        return cached == null ? null : (List<Long>) cached.get();
+    }
+
+    /**
+     * startGeneration: DB 조회 전에 읽어둔 generation()
+     * 조회 도중이나 넣는 도중에 무효화가 있었으면 넣지 않음 (넣은 직후면 다시 제거)
+     */
+    public void putIds(String cacheName, Object key, List<Long> ids, long startGeneration) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null || generation.get() != startGeneration) {
+            return;
+        }
+        cache.put(key, Collections.unmodifiableList(new ArrayList<>(ids)));
+        if (generation.get() != startGeneration) {
+            cache.evict(key);
+        }
+    }
+
+    public void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    /**
+     * username이 들어간 캐시 항목만 제거
+     */
+    public void evictUsername(String username) {
+        if (username == null) {
+            return;
+        }
+        //제거보다 먼저 올려야 제거 직후 putIds가 끼어들어도 걸러짐
+        generation.incrementAndGet();
+        evict(FIND_BY_USERNAME, username);
+        evict(FIND_OPTIONAL_BY_USERNAME, username);
+        evictKeys(FIND_BY_NAMES, key -> key instanceof Set && ((Set<?>) key).contains(username));
+    }
+
+    public void evictAll() {
+        generation.incrementAndGet();
+        for (String cacheName : CACHE_NAMES) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private void evictKeys(String cacheName, Predicate<Object> keyMatcher) {
+        nativeCache(cacheName).keySet().removeIf(keyMatcher);
+    }
+
+    /**
+     * 키 조건으로 지우려면 실제 저장소가 필요함 (캐시 꺼져있으면 빈 맵)
+     */
+    private Map<Object, Object> nativeCache(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache instanceof CaffeineCache) {
+            return ((CaffeineCache) cache).getNativeCache().asMap();
+        }
+        return Collections.emptyMap();
+    }
+}
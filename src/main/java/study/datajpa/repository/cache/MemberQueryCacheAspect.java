@@ -0,0 +1,119 @@
+package study.datajpa.repository.cache;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.Session;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * username 조회 결과 캐시 (app.cache.member-query.enabled, app.cache.second-level.enabled 둘다 true 일때만)
+ * 캐시에는 회원 id만 넣고, hit이면 id로 다시 읽어서 호출한 쪽 영속성 컨텍스트의 엔티티를 돌려줌
+ * id로 읽는건 영속성 컨텍스트 -> Member 2차 캐시 순서로 찾고 없는 것만 DB에서 읽음 (multiLoad)
+ * -> hit이면 DB를 안가면서도 스레드끼리 엔티티를 공유하지 않음
+ * -> bulkAgePlus 같은 벌크 JPQL은 하이버네이트가 Member 리전을 비우므로 바뀐 값을 다시 읽음
+ *
+ * id로 읽은 회원이 모자라거나 조건(username)에 안맞으면
+ * 이벤트를 안거친 변경(롤백된 트랜잭션에서 넣은 값, 2차 캐시에서 비운 외부 변경 등)이라 보고 버린 후 다시 조회
+ * 하이버네이트를 안거친 JDBC 변경은 2차 캐시도 모르므로 리전을 직접 비우거나 ttl까지 기다려야 함
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(name = {"app.cache.member-query.enabled", "app.cache.second-level.enabled"}, havingValue = "true")
+public class MemberQueryCacheAspect {
+
+    //이보다 큰 이름 목록은 캐시 안함 (키가 너무 커짐)
+    private static final int MAX_CACHED_NAMES = 100;
+
+    private final MemberQueryCache memberQueryCache;
+    private final EntityManager em;
+    private final TransactionTemplate readTx;
+
+    public MemberQueryCacheAspect(MemberQueryCache memberQueryCache, EntityManager em,
+                                  PlatformTransactionManager transactionManager) {
+        this.memberQueryCache = memberQueryCache;
+        this.em = em;
+        //호출한 쪽 트랜잭션이 있으면 그 영속성 컨텍스트에서 읽음
+        this.readTx = new TransactionTemplate(transactionManager);
+        this.readTx.setReadOnly(true);
+    }
+
+    @Around("execution(* study.datajpa.repository.MemberRepository.findByUsername(..)) && args(username)")
+    public Object findByUsername(ProceedingJoinPoint joinPoint, String username) throws Throwable {
+        return cached(joinPoint, MemberQueryCache.FIND_BY_USERNAME, username,
+                member -> Objects.equals(member.getUsername(), username), false);
+    }
+
+    @Around("execution(* study.datajpa.repository.MemberRepository.findOptionalByUsername(..)) && args(username)")
+    public Object findOptionalByUsername(ProceedingJoinPoint joinPoint, String username) throws Throwable {
+        return cached(joinPoint, MemberQueryCache.FIND_OPTIONAL_BY_USERNAME, username,
+                member -> Objects.equals(member.getUsername(), username), true);
+    }
+
+    @Around("execution(* study.datajpa.repository.MemberRepository.findByNames(..)) && args(names)")
+    public Object findByNames(ProceedingJoinPoint joinPoint, Collection<String> names) throws Throwable {
+        if (names == null || names.size() > MAX_CACHED_NAMES) {
+            return joinPoint.proceed();
+        }
+        Set<String> key = MemberQueryCache.namesKey(names);
+        return cached(joinPoint, MemberQueryCache.FIND_BY_NAMES, key,
+                member -> key.contains(member.getUsername()), false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object cached(ProceedingJoinPoint joinPoint, String cacheName, Object key,
+                          Predicate<Member> stillMatches, boolean optional) throws Throwable {
+        List<Long> ids = memberQueryCache.getIds(cacheName, key);
+        if (ids != null) {
+            List<Member> members = findAllById(ids);
+            if (members.size() == ids.size() && members.stream().allMatch(stillMatches)) {
+                return optional ? members.stream().findFirst() : members;
+            }
+            memberQueryCache.evict(cacheName, key);
+        }
+
+        long generation = memberQueryCache.generation();
+        Object result = joinPoint.proceed();
+        List<Member> members = optional
+                ? ((Optional<Member>) result).map(Collections::singletonList).orElse(Collections.emptyList())
+                : (List<Member>) result;
+        memberQueryCache.putIds(cacheName, key,
+                members.stream().map(Member::getId).collect(Collectors.toList()), generation);
+        return result;
+    }
+
+    /**
+     * 캐시된 순서 그대로 돌려줌 (없어진 회원은 빠짐)
+     */
+    private List<Member> findAllById(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Member> loaded = readTx.execute(status -> em.unwrap(Session.class)
+                .byMultipleIds(Member.class)
+                .enableSessionCheck(true)
+                .multiLoad(ids));
+        List<Member> members = new ArrayList<>(ids.size());
+        for (Member member : loaded) {
+            if (member != null) {
+                members.add(member);
+            }
+        }
+        return members;
+    }
+}
@@ -0,0 +1,86 @@
+package study.datajpa.repository.cache;
+
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import study.datajpa.entity.Member;
+
+/**
+ * 하이버네이트 커밋 후 이벤트로 Member 저장/삭제를 감지해서 해당 username 캐시만 제거
+ * update는 변경 전 상태(oldState)도 있어서 username이 바뀐 경우 이전 이름 캐시까지 제거함
+ * (벌크 쿼리는 이벤트가 안나가지만 username은 안바꾸므로 캐시된 id 목록은 그대로 유효함)
+ */
+public class MemberQueryCacheEventListener implements
+        PostCommitInsertEventListener, PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final String USERNAME = "username";
+
+    private final MemberQueryCache memberQueryCache;
+
+    public MemberQueryCacheEventListener(MemberQueryCache memberQueryCache) {
+        this.memberQueryCache = memberQueryCache;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            memberQueryCache.evictUsername(((Member) event.getEntity()).getUsername());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof Member)) {
+            return;
+        }
+        memberQueryCache.evictUsername(((Member) event.getEntity()).getUsername());
+
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            //이전 상태를 모르면 바뀐 username을 알 수 없으니 전부 제거
+            memberQueryCache.evictAll();
+            return;
+        }
+        int index = usernameIndex(event.getPersister());
+        memberQueryCache.evictUsername((String) oldState[index]);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            memberQueryCache.evictUsername(((Member) event.getEntity()).getUsername());
+        }
+    }
+
+    //커밋 실패시에는 DB가 바뀌지 않았으니 할 일 없음
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return Member.class.equals(persister.getMappedClass());
+    }
+
+    private int usernameIndex(EntityPersister persister) {
+        String[] propertyNames = persister.getPropertyNames();
+        for (int i = 0; i < propertyNames.length; i++) {
+            if (USERNAME.equals(propertyNames[i])) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Member에 username 속성이 없습니다");
+    }
+}
@@ -0,0 +1,431 @@
+package study.datajpa.repository.projection;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.modifier.TypeManifestation;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.EqualsMethod;
+import net.bytebuddy.implementation.FieldAccessor;
+import net.bytebuddy.implementation.HashCodeMethod;
+import net.bytebuddy.implementation.ToStringMethod;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.stereotype.Component;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+import static net.bytebuddy.matcher.ElementMatchers.*;
+
+/**
+ * 스프링 데이터 프로젝션 대신 쓰는 프로젝션 생성기
+ *
+ * 스프링 데이터는 인터페이스 프로젝션을 JDK 프록시로 만들고, getter 호출마다
+ * 리플렉션 + 맵 조회(중첩 프로젝션이면 호출마다 프록시 새로 생성)를 거침
+ * 여기서는 타입별로 한번만
+ * - 닫힌 인터페이스: 프로퍼티마다 public 필드가 있는 구현 클래스를 ByteBuddy로 생성 (getter = 필드 읽기)
+ * - 클래스(UsernameOnlyDto 같은 DTO): 생성자 파라미터 이름으로 프로퍼티를 찾아서 생성자 호출
+ * - 열린 인터페이스(@Value SpEL 등): 스프링 데이터 프록시 그대로 사용
+ * 값 읽기/쓰기는 MethodHandle로 미리 만들어둠
+ *
+ * 엔티티 대신 필요한 컬럼만 조회했으면 (RowProjectionMapper.paths) rowMapperFor(type).fromRow로 바로 만들 수 있음
+ */
+@Component
+public class GeneratedProjectionFactory {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final ConcurrentMap<Class<?>, ProjectionMapper<?>> mappers = new ConcurrentHashMap<>();
+    //지금 스레드에서 mapper를 만드는 중인 타입 (중첩 프로젝션 순환 참조 검사)
+    private final ThreadLocal<Deque<Class<?>>> creating = ThreadLocal.withInitial(ArrayDeque::new);
+    private final SpelAwareProxyProjectionFactory proxyFactory = new SpelAwareProxyProjectionFactory();
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+    public <T> T createProjection(Class<T> type, Object source) {
+        return mapperFor(type).fromSource(source);
+    }
+
+    /**
+     * 컬럼 row로 만들 수 있는 프로젝션인지 (닫힌 인터페이스, 생성자 DTO)
+     */
+    public boolean supportsRows(Class<?> type) {
+        return mapperFor(type) instanceof RowProjectionMapper;
+    }
+
+    /**
+     * 컬럼 row용 mapper. 경로를 알 수 없는 열린 프로젝션이면 여기서 바로 실패
+     */
+    @SuppressWarnings("unchecked")
+    public <T> RowProjectionMapper<T> rowMapperFor(Class<T> type) {
+        ProjectionMapper<T> mapper = mapperFor(type);
+        if (!(mapper instanceof RowProjectionMapper)) {
+            throw new IllegalArgumentException(
+                    type.getName() + "는 읽는 경로를 알 수 없는 (열린) 프로젝션이라 컬럼 row로 만들 수 없습니다");
+        }
+        return (RowProjectionMapper<T>) mapper;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> ProjectionMapper<T> mapperFor(Class<T> type) {
+        //중첩 프로젝션 mapper를 만들면서 다시 호출되므로 computeIfAbsent는 못씀
+        //동시에 처음 요청되면 클래스가 두번 생성될 수 있지만 먼저 들어간 것만 사용됨
+        ProjectionMapper<?> mapper = mappers.get(type);
+        if (mapper == null) {
+            ProjectionMapper<?> created = createGuarded(type);
+            mapper = mappers.putIfAbsent(type, created);
+            if (mapper == null) {
+                mapper = created;
+            }
+        }
+        return (ProjectionMapper<T>) mapper;
+    }
+
+    /**
+     * 중첩 프로젝션이 자기 자신(또는 상위 프로젝션)을 다시 참조하면 mapper를 끝없이 만들게 되므로 바로 실패
+     */
+    private ProjectionMapper<?> createGuarded(Class<?> type) {
+        Deque<Class<?>> path = creating.get();
+        if (path.contains(type)) {
+            String cycle = path.stream()
+                    .dropWhile(inProgress -> inProgress != type)
+                    .map(Class::getName)
+                    .collect(Collectors.joining(" -> ", "", " -> " + type.getName()));
+            throw new IllegalArgumentException("자기 자신을 참조하는 프로젝션은 지원하지 않습니다: " + cycle);
+        }
+        path.addLast(type);
+        try {
+            return createMapper(type);
+        } finally {
+            path.removeLast();
+        }
+    }
+
+    private ProjectionMapper<?> createMapper(Class<?> type) {
+        if (!type.isInterface()) {
+            return new ConstructorMapper<>(type, parameterNameDiscoverer);
+        }
+        if (!isClosed(type)) {
+            return source -> proxyFactory.createProjection(type, source);
+        }
+        GeneratedMapper<?> mapper = new GeneratedMapper<>(type, this);
+        if (mapper.paths().isEmpty()) {
+            //중첩에 열린 프로젝션이 있으면 row로는 못만드니 fromSource만 노출
+            return mapper::fromSource;
+        }
+        return mapper;
+    }
+
+    /**
+     * 모든 추상 메서드가 파라미터 없는 getter이고 @Value(SpEL)가 없으면 닫힌 프로젝션
+     * 컬렉션 프로퍼티는 지원 안함 (프록시로 처리)
+     */
+    private static boolean isClosed(Class<?> type) {
+        if (!Modifier.isPublic(type.getModifiers())) {
+            return false; //다른 클래스로더에서 구현할 수 없음
+        }
+        for (Method method : type.getMethods()) {
+            if (method.isDefault() || Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            if (method.isAnnotationPresent(Value.class) || propertyName(method) == null
+                    || Collection.class.isAssignableFrom(method.getReturnType())
+                    || Map.class.isAssignableFrom(method.getReturnType())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isNestedProjection(Class<?> type) {
+        return type.isInterface() && !type.getName().startsWith("java.");
+    }
+
+    private static String propertyName(Method method) {
+        if (method.getParameterCount() != 0 || method.getReturnType() == void.class) {
+            return null;
+        }
+        String name = method.getName();
+        if (name.startsWith("get") && name.length() > 3) {
+            return decapitalize(name.substring(3));
+        }
+        if (name.startsWith("is") && name.length() > 2 && method.getReturnType() == boolean.class) {
+            return decapitalize(name.substring(2));
+        }
+        return null;
+    }
+
+    private static String decapitalize(String name) {
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * source 클래스별 getter 캐시 (하이버네이트 프록시처럼 같은 프로퍼티라도 클래스가 다를 수 있음)
+     */
+    private static class SourceReader {
+
+        private final String[] propertyNames;
+        private final ConcurrentMap<Class<?>, MethodHandle[]> getters = new ConcurrentHashMap<>();
+
+        SourceReader(String[] propertyNames) {
+            this.propertyNames = propertyNames;
+        }
+
+        Object read(Object source, int index) throws Throwable {
+            MethodHandle[] handles = getters.computeIfAbsent(source.getClass(), this::resolve);
+            return (Object) handles[index].invokeExact(source);
+        }
+
+        private MethodHandle[] resolve(Class<?> sourceClass) {
+            MethodHandle[] handles = new MethodHandle[propertyNames.length];
+            for (int i = 0; i < propertyNames.length; i++) {
+                PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(sourceClass, propertyNames[i]);
+                if (descriptor == null || descriptor.getReadMethod() == null) {
+                    throw new IllegalArgumentException(
+                            sourceClass.getName() + "에 프로퍼티 " + propertyNames[i] + "가 없습니다");
+                }
+                try {
+                    handles[i] = LOOKUP.unreflect(descriptor.getReadMethod()).asType(GETTER_TYPE);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return handles;
+        }
+    }
+
+    /**
+     * 닫힌 인터페이스 -> 생성된 구현 클래스
+     */
+    private static class GeneratedMapper<T> implements RowProjectionMapper<T> {
+
+        private final MethodHandle constructor;
+        private final MethodHandle[] setters;
+        private final ProjectionMapper<?>[] nested;
+        private final SourceReader reader;
+        private final List<String> paths;
+
+        GeneratedMapper(Class<T> type, GeneratedProjectionFactory factory) {
+            List<Method> getters = new ArrayList<>();
+            for (Method method : type.getMethods()) {
+                if (!method.isDefault() && !Modifier.isStatic(method.getModifiers())) {
+                    getters.add(method);
+                }
+            }
+            //순서 고정 (getMethods()는 순서 보장 안함)
+            getters.sort(Comparator.comparing(GeneratedProjectionFactory::propertyName));
+
+            //중첩 mapper를 먼저 만들어서 순환 참조면 클래스 생성 전에 실패
+            String[] names = new String[getters.size()];
+            this.nested = new ProjectionMapper<?>[getters.size()];
+            for (int i = 0; i < getters.size(); i++) {
+                names[i] = propertyName(getters.get(i));
+                Class<?> propertyType = getters.get(i).getReturnType();
+                if (isNestedProjection(propertyType)) {
+                    nested[i] = factory.mapperFor(propertyType);
+                }
+            }
+
+            DynamicType.Builder<Object> builder = new ByteBuddy()
+                    .subclass(Object.class)
+                    .name(type.getName() + "$Generated")
+                    .modifiers(Visibility.PUBLIC, TypeManifestation.FINAL)
+                    .implement(type);
+            for (int i = 0; i < getters.size(); i++) {
+                Method getter = getters.get(i);
+                builder = builder.defineField(names[i], getter.getReturnType(), Visibility.PUBLIC)
+                        .method(named(getter.getName()).and(takesArguments(0)))
+                        .intercept(FieldAccessor.ofField(names[i]));
+            }
+            Class<?> generated = builder
+                    .method(isToString()).intercept(ToStringMethod.prefixedBySimpleClassName())
+                    .method(isEquals()).intercept(EqualsMethod.isolated())
+                    .method(isHashCode()).intercept(HashCodeMethod.usingDefaultOffset())
+                    .make()
+                    .load(type.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                    .getLoaded();
+
+            try {
+                this.constructor = LOOKUP.findConstructor(generated, MethodType.methodType(void.class))
+                        .asType(MethodType.methodType(Object.class));
+                this.setters = new MethodHandle[names.length];
+                for (int i = 0; i < names.length; i++) {
+                    setters[i] = LOOKUP.findSetter(generated, names[i], getters.get(i).getReturnType())
+                            .asType(SETTER_TYPE);
+                }
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(type.getName() + " 프로젝션 클래스 생성 실패", e);
+            }
+            this.reader = new SourceReader(names);
+            this.paths = flattenPaths(names, nested);
+        }
+
+        /**
+         * 중첩 프로젝션 경로는 "team.name"처럼 펼침
+         * 중첩 중에 경로를 모르는 프로젝션(열린 프로젝션)이 있으면 전체를 row로 못만듦
+         */
+        private static List<String> flattenPaths(String[] names, ProjectionMapper<?>[] nested) {
+            List<String> paths = new ArrayList<>();
+            for (int i = 0; i < names.length; i++) {
+                if (nested[i] == null) {
+                    paths.add(names[i]);
+                    continue;
+                }
+                if (!(nested[i] instanceof RowProjectionMapper)) {
+                    return Collections.emptyList();
+                }
+                for (String nestedPath : ((RowProjectionMapper<?>) nested[i]).paths()) {
+                    paths.add(names[i] + "." + nestedPath);
+                }
+            }
+            return Collections.unmodifiableList(paths);
+        }
+
+        @Override
+        public List<String> paths() {
+            return paths;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T fromRow(Object[] row, int offset) {
+            try {
+                Object projection = (Object) constructor.invokeExact();
+                int column = offset;
+                for (int i = 0; i < setters.length; i++) {
+                    Object value;
+                    if (nested[i] == null) {
+                        value = row[column++];
+                    } else {
+                        //left join 해서 중첩 쪽 컬럼이 전부 null이면 중첩 프로젝션도 null
+                        RowProjectionMapper<?> nestedMapper = (RowProjectionMapper<?>) nested[i];
+                        int width = nestedMapper.paths().size();
+                        value = allNull(row, column, width) ? null : nestedMapper.fromRow(row, column);
+                        column += width;
+                    }
+                    setters[i].invokeExact(projection, value);
+                }
+                return (T) projection;
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static boolean allNull(Object[] row, int from, int width) {
+            for (int i = from; i < from + width; i++) {
+                if (row[i] != null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T fromSource(Object source) {
+            try {
+                Object projection = (Object) constructor.invokeExact();
+                for (int i = 0; i < setters.length; i++) {
+                    Object value = reader.read(source, i);
+                    if (value != null && nested[i] != null) {
+                        value = nested[i].fromSource(value);
+                    }
+                    setters[i].invokeExact(projection, value);
+                }
+                return (T) projection;
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * DTO 클래스 -> 생성자 프로젝션 (파라미터 이름 = 프로퍼티 이름)
+     * 생성자가 여러개면 파라미터가 가장 많은 public 생성자 사용
+     */
+    private static class ConstructorMapper<T> implements RowProjectionMapper<T> {
+
+        private final MethodHandle constructor;
+        private final SourceReader reader;
+
+        ConstructorMapper(Class<T> type, ParameterNameDiscoverer parameterNameDiscoverer) {
+            Constructor<?> target = Arrays.stream(type.getConstructors())
+                    .max(Comparator.comparingInt(Constructor::getParameterCount))
+                    .orElseThrow(() -> new IllegalArgumentException(type.getName() + "에 public 생성자가 없습니다"));
+            String[] names = parameterNameDiscoverer.getParameterNames(target);
+            if (names == null) {
+                throw new IllegalArgumentException(type.getName() + " 생성자 파라미터 이름을 알 수 없습니다 (-parameters 필요)");
+            }
+            try {
+                this.constructor = LOOKUP.unreflectConstructor(target)
+                        .asSpreader(Object[].class, names.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+            this.reader = new SourceReader(names);
+        }
+
+        @Override
+        public List<String> paths() {
+            return Arrays.asList(reader.propertyNames);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T fromRow(Object[] row, int offset) {
+            Object[] args = offset == 0 && row.length == reader.propertyNames.length
+                    ? row
+                    : Arrays.copyOfRange(row, offset, offset + reader.propertyNames.length);
+            try {
+                return (T) (Object) constructor.invokeExact(args);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T fromSource(Object source) {
+            try {
+                Object[] args = new Object[reader.propertyNames.length];
+                for (int i = 0; i < args.length; i++) {
+                    args[i] = reader.read(source, i);
+                }
+                return (T) (Object) constructor.invokeExact(args);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
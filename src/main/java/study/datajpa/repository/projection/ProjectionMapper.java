@@ -0,0 +1,13 @@
+package study.datajpa.repository.projection;
+
+/**
+ * 프로젝션 타입 하나에 대해 미리 만들어둔 변환기 (GeneratedProjectionFactory가 타입별로 한번 생성)
+ * 컬럼 row에서도 만들 수 있는 프로젝션은 RowProjectionMapper
+ */
+public interface ProjectionMapper<T> {
+
+    /**
+     * 엔티티(또는 아무 자바빈)의 getter 값으로 프로젝션 생성
+     */
+    T fromSource(Object source);
+}
@@ -0,0 +1,25 @@
+package study.datajpa.repository.projection;
+
+import java.util.List;
+
+/**
+ * 읽는 값의 경로를 알 수 있는 프로젝션 (닫힌 인터페이스, 생성자 DTO)
+ * 이 경로만 select 하면 엔티티 없이 만들 수 있음
+ * 열린 프로젝션(@Value SpEL)은 경로를 모르므로 GeneratedProjectionFactory.rowMapperFor에서 거부
+ */
+public interface RowProjectionMapper<T> extends ProjectionMapper<T> {
+
+    /**
+     * 프로젝션이 읽는 값의 경로 (중첩은 펼쳐서 "team.name")
+     */
+    List<String> paths();
+
+    /**
+     * row[offset]부터 paths() 순서대로 들어있는 값으로 프로젝션 생성
+     */
+    T fromRow(Object[] row, int offset);
+
+    default T fromRow(Object[] row) {
+        return fromRow(row, 0);
+    }
+}
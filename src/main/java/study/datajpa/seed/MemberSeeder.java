@@ -0,0 +1,178 @@
+package study.datajpa.seed;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 부하 테스트용 대량 데이터 적재 (MemberController.init 대체)
+ * 1. 팀을 먼저 넣고 id만 들고 있음
+ * 2. 회원 범위를 스레드 수만큼 나눠서 스레드마다 chunkSize 단위 트랜잭션으로 saveAllBatched (insert 배치)
+ * 3. reportInterval마다 처리량 로그
+ *
+ * 청크마다 따로 커밋되므로 중간에 실패하면 그때까지 넣은 데이터는 남아있음
+ * SQL 로그(org.hibernate.SQL, p6spy)를 켜두면 로그 찍는 시간이 대부분이 되니 끄고 실행 (prod 프로파일 참고)
+ */
+@Slf4j
+@Component
+public class MemberSeeder {
+
+    private final MemberRepository memberRepository;
+    private final TeamRepository teamRepository;
+    private final TransactionTemplate chunkTx;
+
+    public MemberSeeder(MemberRepository memberRepository, TeamRepository teamRepository,
+                        PlatformTransactionManager transactionManager) {
+        this.memberRepository = memberRepository;
+        this.teamRepository = teamRepository;
+        this.chunkTx = new TransactionTemplate(transactionManager);
+        this.chunkTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public SeedResult seed(SeedProperties properties) {
+        long start = System.nanoTime();
+        long[] teamIds = seedTeams(properties);
+
+        LongAdder inserted = new LongAdder();
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "member-seeder-report");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(properties.getReportInterval().toMillis(), 1);
+        reporter.scheduleAtFixedRate(new ThroughputReport(inserted, properties.getMembers(), start),
+                intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+
+        int threads = Math.max(properties.getThreads(), 1);
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(threads,
+                r -> new Thread(r, "member-seeder-" + threadNumber.getAndIncrement()));
+        try {
+            long members = properties.getMembers();
+            List<Future<?>> partitions = new ArrayList<>();
+            for (int p = 0; p < threads; p++) {
+                //[from, to) 범위를 스레드 하나가 담당
+                long from = members * p / threads;
+                long to = members * (p + 1) / threads;
+                SplittableRandom random = new SplittableRandom(properties.getRandomSeed() + p);
+                partitions.add(workers.submit(() -> seedMembers(properties, teamIds, from, to, random, inserted)));
+            }
+            awaitAll(partitions);
+        } finally {
+            workers.shutdownNow();
+            reporter.shutdownNow();
+        }
+
+        SeedResult result = new SeedResult(teamIds.length, inserted.sum(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("시드 완료: {}", result);
+        return result;
+    }
+
+    private long[] seedTeams(SeedProperties properties) {
+        long[] teamIds = new long[properties.getTeams()];
+        for (int from = 0; from < teamIds.length; from += properties.getChunkSize()) {
+            int chunkFrom = from;
+            int chunkTo = Math.min(from + properties.getChunkSize(), teamIds.length);
+            chunkTx.executeWithoutResult(status -> {
+                List<Team> teams = new ArrayList<>(chunkTo - chunkFrom);
+                for (int i = chunkFrom; i < chunkTo; i++) {
+                    teams.add(new Team(properties.getTeamPrefix() + i));
+                }
+                teamRepository.saveAll(teams);
+                teamRepository.flush();
+                for (int i = 0; i < teams.size(); i++) {
+                    teamIds[chunkFrom + i] = teams.get(i).getId();
+                }
+            });
+        }
+        return teamIds;
+    }
+
+    private void seedMembers(SeedProperties properties, long[] teamIds, long from, long to,
+                             SplittableRandom random, LongAdder inserted) {
+        for (long chunkFrom = from; chunkFrom < to; chunkFrom += properties.getChunkSize()) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            long chunkTo = Math.min(chunkFrom + properties.getChunkSize(), to);
+            long chunkStart = chunkFrom;
+            Long saved = chunkTx.execute(status -> {
+                List<Member> members = new ArrayList<>((int) (chunkTo - chunkStart));
+                for (long i = chunkStart; i < chunkTo; i++) {
+                    //팀은 id만 있는 프록시로 연결 (select 안나감)
+                    Team team = teamIds.length == 0 ? null
+                            : teamRepository.getOne(teamIds[teamIndex(properties, teamIds.length, random)]);
+                    members.add(new Member(properties.getUsernamePrefix() + i, random.nextInt(100), team));
+                }
+                return memberRepository.saveAllBatched(members);
+            });
+            inserted.add(saved);
+        }
+    }
+
+    private static int teamIndex(SeedProperties properties, int teams, SplittableRandom random) {
+        if (properties.getDistribution() == SeedProperties.TeamDistribution.SKEWED) {
+            return (int) (teams * Math.pow(random.nextDouble(), properties.getSkew()));
+        }
+        return random.nextInt(teams);
+    }
+
+    private static void awaitAll(List<Future<?>> partitions) {
+        try {
+            for (Future<?> partition : partitions) {
+                partition.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("회원 시드 실패 (이미 커밋된 청크는 남아있음)", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("회원 시드 중단", e);
+        }
+    }
+
+    private static class ThroughputReport implements Runnable {
+
+        private final LongAdder inserted;
+        private final long total;
+        private final long start;
+        private long lastCount;
+        private long lastTime;
+
+        private ThroughputReport(LongAdder inserted, long total, long start) {
+            this.inserted = inserted;
+            this.total = total;
+            this.start = start;
+            this.lastTime = start;
+        }
+
+        @Override
+        public void run() {
+            long now = System.nanoTime();
+            long count = inserted.sum();
+            long recent = (count - lastCount) * TimeUnit.SECONDS.toNanos(1) / Math.max(now - lastTime, 1);
+            long overall = count * TimeUnit.SECONDS.toNanos(1) / Math.max(now - start, 1);
+            log.info("회원 시드 진행중: {}/{} ({} rows/s, 평균 {} rows/s)", count, total, recent, overall);
+            lastCount = count;
+            lastTime = now;
+        }
+    }
+}
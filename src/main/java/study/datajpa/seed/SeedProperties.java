@@ -0,0 +1,52 @@
+package study.datajpa.seed;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 부하 테스트용 대량 데이터 설정 (app.seed)
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.seed")
+public class SeedProperties {
+
+    public enum TeamDistribution {UNIFORM, SKEWED}
+
+    /**
+     * true면 애플리케이션 기동 후 MemberSeeder 실행
+     */
+    private boolean enabled;
+
+    private int teams = 1000;
+
+    private long members = 1_000_000;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 트랜잭션 하나에 넣는 회원 수 (안에서는 jdbc.batch_size 단위로 flush)
+     */
+    private int chunkSize = 10_000;
+
+    private TeamDistribution distribution = TeamDistribution.UNIFORM;
+
+    /**
+     * SKEWED일 때 쏠림 정도, 팀 번호 = teams * r^skew (1이면 균등, 클수록 앞 번호 팀에 몰림)
+     */
+    private double skew = 3.0;
+
+    private String usernamePrefix = "member";
+
+    private String teamPrefix = "team";
+
+    /**
+     * 같은 값이면 항상 같은 팀 배정/나이가 나옴
+     */
+    private long randomSeed = 42L;
+
+    private Duration reportInterval = Duration.ofSeconds(5);
+}
@@ -0,0 +1,24 @@
+package study.datajpa.seed;
+
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+public class SeedResult {
+
+    private final int teams;
+    private final long members;
+    private final long elapsedMillis;
+
+    public SeedResult(int teams, long members, long elapsedMillis) {
+        this.teams = teams;
+        this.members = members;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    @ToString.Include
+    public long getMembersPerSecond() {
+        return elapsedMillis == 0 ? members : members * 1000 / elapsedMillis;
+    }
+}
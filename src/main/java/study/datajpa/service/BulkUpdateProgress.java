@@ -0,0 +1,27 @@
+package study.datajpa.service;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 청크 벌크 수정 진행 상황
+ * lastProcessedId까지는 커밋 완료 -> 실패하면 이 값부터 다시 시작하면 됨
+ */
+@Getter
+@ToString
+public class BulkUpdateProgress {
+
+    private final long lastProcessedId;
+    private final long maxId;
+    private final long updatedRows;
+
+    public BulkUpdateProgress(long lastProcessedId, long maxId, long updatedRows) {
+        this.lastProcessedId = lastProcessedId;
+        this.maxId = maxId;
+        this.updatedRows = updatedRows;
+    }
+
+    public boolean isCompleted() {
+        return lastProcessedId >= maxId;
+    }
+}
@@ -0,0 +1,18 @@
+package study.datajpa.service;
+
+import lombok.Getter;
+
+/**
+ * 청크 벌크 수정 도중 실패
+ * 이미 커밋된 청크는 그대로 남아있으므로 progress.lastProcessedId를 resumeAfterId로 넘겨서 이어서 실행
+ */
+@Getter
+public class ChunkedUpdateException extends RuntimeException {
+
+    private final BulkUpdateProgress progress;
+
+    public ChunkedUpdateException(BulkUpdateProgress progress, Throwable cause) {
+        super("청크 벌크 수정 실패 (resumeAfterId=" + progress.getLastProcessedId() + ")", cause);
+        this.progress = progress;
+    }
+}
@@ -0,0 +1,100 @@
+package study.datajpa.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.repository.MemberRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * bulkAgePlus를 id 범위 청크로 나눠서 실행
+ * update Member ... where age >= :age 한방은 대상 row 전체에 lock을 오래 잡고 있어서 다른 쓰기가 밀림
+ * 청크마다 별도의 짧은 트랜잭션으로 커밋하고, 청크 사이에 잠깐 쉬어서 다른 트랜잭션에 틈을 줌
+ * 청크 경계는 고정 폭 id 범위가 아니라 실제 id에서 고름 (id가 듬성듬성해도 빈 청크 없음)
+ *
+ * 시작 시점의 max(id)까지만 처리함 (이후에 insert된 회원은 대상 아님)
+ */
+@Slf4j
+@Service
+public class MemberBulkService {
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate chunkTx;
+    private final int defaultChunkSize;
+    private final Duration defaultPause;
+
+    public MemberBulkService(MemberRepository memberRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.bulk.chunk-size:1000}") int defaultChunkSize,
+                             @Value("${app.bulk.pause:50ms}") Duration defaultPause) {
+        this.memberRepository = memberRepository;
+        this.chunkTx = new TransactionTemplate(transactionManager);
+        //호출한 쪽에 트랜잭션이 있어도 청크마다 따로 커밋
+        this.chunkTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.defaultChunkSize = defaultChunkSize;
+        this.defaultPause = defaultPause;
+    }
+
+    public BulkUpdateProgress bulkAgePlusChunked(int age) {
+        return bulkAgePlusChunked(age, 0L, defaultChunkSize, defaultPause,
+                progress -> log.info("bulkAgePlus(age >= {}) 진행중: {}", age, progress));
+    }
+
+    /**
+     * @param resumeAfterId 이 id 다음부터 처리 (처음이면 0, 실패 후 재시작이면 실패 시점의 lastProcessedId)
+     * @param listener      청크 하나 커밋될 때마다 호출
+     */
+    public BulkUpdateProgress bulkAgePlusChunked(int age, long resumeAfterId, int chunkSize, Duration pause,
+                                                 Consumer<BulkUpdateProgress> listener) {
+        Long maxId = memberRepository.findMaxId();
+        if (maxId == null) {
+            return new BulkUpdateProgress(resumeAfterId, resumeAfterId, 0);
+        }
+
+        long from = resumeAfterId;
+        long updated = 0;
+        while (from < maxId) {
+            List<Long> ids = memberRepository.findIdsAfter(from, maxId, PageRequest.of(0, chunkSize));
+            if (ids.isEmpty()) {
+                //남은 id 없음 (시작 후 삭제된 경우)
+                from = maxId;
+                break;
+            }
+            long fromId = from;
+            long toId = ids.get(ids.size() - 1);
+            try {
+                Integer count = chunkTx.execute(status -> memberRepository.bulkAgePlusInRange(age, fromId, toId));
+                updated += count;
+            } catch (RuntimeException e) {
+                throw new ChunkedUpdateException(new BulkUpdateProgress(from, maxId, updated), e);
+            }
+            from = toId;
+            listener.accept(new BulkUpdateProgress(from, maxId, updated));
+
+            //마지막 청크 뒤에는 쉬지 않음
+            if (from < maxId && ids.size() == chunkSize) {
+                pause(pause, new BulkUpdateProgress(from, maxId, updated));
+            }
+        }
+        return new BulkUpdateProgress(from, maxId, updated);
+    }
+
+    private void pause(Duration pause, BulkUpdateProgress progress) {
+        if (pause.isZero() || pause.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(pause.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ChunkedUpdateException(progress, e);
+        }
+    }
+}
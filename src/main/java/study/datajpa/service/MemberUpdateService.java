@@ -0,0 +1,114 @@
+package study.datajpa.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.support.ConcurrencyMetrics;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * 회원 조회 -> 수정 -> 저장(read-modify-write)을 동시성 제어 방식별로 제공
+ *
+ * updatePessimistic: select ... for update로 잠그고 수정 (같은 username 쓰기는 전부 줄 섬)
+ * updateOptimistic: 잠그지 않고 @Version으로 충돌만 감지, 충돌하면 새 트랜잭션에서 다시 읽어서 재시도
+ *
+ * 재시도할 때 이전 영속성 컨텍스트를 재사용하면 안되므로 시도마다 REQUIRES_NEW 트랜잭션
+ */
+@Slf4j
+@Service
+public class MemberUpdateService {
+
+    private final MemberRepository memberRepository;
+    private final ConcurrencyMetrics metrics;
+    private final TransactionTemplate tx;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public MemberUpdateService(MemberRepository memberRepository,
+                               ConcurrencyMetrics metrics,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.optimistic-retry.max-attempts:5}") int maxAttempts,
+                               @Value("${app.optimistic-retry.initial-backoff:10ms}") Duration initialBackoff,
+                               @Value("${app.optimistic-retry.max-backoff:200ms}") Duration maxBackoff) {
+        this.memberRepository = memberRepository;
+        this.metrics = metrics;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * username이 같은 회원들을 낙관적 락으로 수정
+     * 충돌하면 최대 maxAttempts번까지 backoff(지수 증가 + jitter) 후 재시도
+     * 재시도를 다 써도 충돌하면 마지막 OptimisticLockingFailureException을 그대로 던짐
+     *
+     * change는 재시도마다 새로 읽은 엔티티에 다시 적용되므로 부수효과 없이 작성해야 함
+     */
+    public List<Member> updateOptimistic(String username, Consumer<Member> change) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                List<Member> members = tx.execute(status -> {
+                    //findByUsername은 조회 캐시 대상이라 수정용으로는 캐시 안타는 메서드 사용
+                    List<Member> found = memberRepository.findListByUsername(username);
+                    found.forEach(change);
+                    //커밋 시점이 아니라 여기서 flush해야 리포지토리 예외 변환을 거쳐서
+                    //OptimisticLockingFailureException으로 받을 수 있음
+                    memberRepository.flush();
+                    return found;
+                });
+                metrics.optimisticSucceeded();
+                return members;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    metrics.optimisticFailed();
+                    throw e;
+                }
+                metrics.optimisticRetried();
+                log.debug("낙관적 락 충돌 username={} attempt={}", username, attempt);
+                backoff(attempt);
+            }
+        }
+    }
+
+    /**
+     * 같은 수정을 비관적 락(findLockByUsername)으로 수행 (비교용)
+     */
+    public List<Member> updatePessimistic(String username, Consumer<Member> change) {
+        return tx.execute(status -> {
+            long start = System.nanoTime();
+            List<Member> members = memberRepository.findLockByUsername(username);
+            metrics.pessimisticLocked(System.nanoTime() - start);
+            members.forEach(change);
+            return members;
+        });
+    }
+
+    private void backoff(int attempt) {
+        long base = initialBackoff.toMillis() << Math.min(attempt - 1, 20);
+        long capped = Math.min(base, maxBackoff.toMillis());
+        if (capped <= 0) {
+            return;
+        }
+        //여러 스레드가 같은 간격으로 다시 부딪히지 않도록 [capped/2, capped] 사이에서 랜덤
+        long sleep = capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+        try {
+            Thread.sleep(sleep);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("낙관적 락 재시도 대기 중 인터럽트", e);
+        }
+    }
+}
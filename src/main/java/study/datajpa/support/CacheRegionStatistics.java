@@ -0,0 +1,58 @@
+package study.datajpa.support;
+
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JCache 표준 통계 MBean(javax.cache:type=CacheStatistics)을 읽어서 리전별 hit/miss/eviction을 모아줌
+ * 캐시 구현체(Caffeine)와 상관없이 statisticsEnabled인 캐시는 다 잡힘
+ */
+@Component
+public class CacheRegionStatistics {
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    public List<RegionStats> findAll() {
+        List<RegionStats> result = new ArrayList<>();
+        try {
+            for (ObjectName name : mBeanServer.queryNames(new ObjectName("javax.cache:type=CacheStatistics,*"), null)) {
+                result.add(new RegionStats(
+                        name.getKeyProperty("Cache"),
+                        (Long) mBeanServer.getAttribute(name, "CacheHits"),
+                        (Long) mBeanServer.getAttribute(name, "CacheMisses"),
+                        (Float) mBeanServer.getAttribute(name, "CacheHitPercentage"),
+                        (Long) mBeanServer.getAttribute(name, "CachePuts"),
+                        (Long) mBeanServer.getAttribute(name, "CacheEvictions")));
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("캐시 통계 조회 실패", e);
+        }
+        return result;
+    }
+
+    @Getter
+    public static class RegionStats {
+        private final String region;
+        private final long hits;
+        private final long misses;
+        private final float hitPercentage;
+        private final long puts;
+        private final long evictions;
+
+        public RegionStats(String region, long hits, long misses, float hitPercentage, long puts, long evictions) {
+            this.region = region;
+            this.hits = hits;
+            this.misses = misses;
+            this.hitPercentage = hitPercentage;
+            this.puts = puts;
+            this.evictions = evictions;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package study.datajpa.support;
+
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 비관적 락(findLockByUsername) vs 낙관적 락(@Version + 재시도) 비교용 카운터
+ * 경합 상황에서 여러 스레드가 동시에 올리므로 LongAdder 사용
+ */
+@Component
+public class ConcurrencyMetrics {
+
+    private final LongAdder optimisticUpdates = new LongAdder();
+    private final LongAdder optimisticRetries = new LongAdder();
+    private final LongAdder optimisticFailures = new LongAdder();
+
+    private final LongAdder pessimisticUpdates = new LongAdder();
+    private final LongAdder lockWaitNanos = new LongAdder();
+    private final LongAccumulator maxLockWaitNanos = new LongAccumulator(Math::max, 0);
+
+    public void optimisticSucceeded() {
+        optimisticUpdates.increment();
+    }
+
+    public void optimisticRetried() {
+        optimisticRetries.increment();
+    }
+
+    /**
+     * 재시도 횟수를 다 쓰고도 충돌
+     */
+    public void optimisticFailed() {
+        optimisticFailures.increment();
+    }
+
+    /**
+     * 비관적 락 조회(select ... for update)에 걸린 시간
+     * 쿼리 실행 시간도 포함되지만 경합이 있으면 대부분 락 대기 시간임
+     */
+    public void pessimisticLocked(long waitNanos) {
+        pessimisticUpdates.increment();
+        lockWaitNanos.add(waitNanos);
+        maxLockWaitNanos.accumulate(waitNanos);
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    @Getter
+    public static class Snapshot {
+        private final long optimisticUpdates;
+        private final long optimisticRetries;
+        private final long optimisticFailures;
+        private final long pessimisticUpdates;
+        private final long totalLockWaitMillis;
+        private final long maxLockWaitMillis;
+
+        private Snapshot(ConcurrencyMetrics metrics) {
+            this.optimisticUpdates = metrics.optimisticUpdates.sum();
+            this.optimisticRetries = metrics.optimisticRetries.sum();
+            this.optimisticFailures = metrics.optimisticFailures.sum();
+            this.pessimisticUpdates = metrics.pessimisticUpdates.sum();
+            this.totalLockWaitMillis = TimeUnit.NANOSECONDS.toMillis(metrics.lockWaitNanos.sum());
+            this.maxLockWaitMillis = TimeUnit.NANOSECONDS.toMillis(metrics.maxLockWaitNanos.get());
+        }
+    }
+}
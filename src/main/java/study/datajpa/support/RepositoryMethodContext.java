@@ -0,0 +1,34 @@
+package study.datajpa.support;
+
+/**
+ * 지금 스레드에서 실행중인 리포지토리 메서드 이름 (예: "MemberRepository.findByAge")
+ * RepositoryMetricsAspect가 채우고, SQL 단위로 기록하는 쪽(슬로우 쿼리 로그 등)에서 꺼내 씀
+ */
+public final class RepositoryMethodContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private RepositoryMethodContext() {
+    }
+
+    public static String current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return 이전 값 (리포지토리 안에서 다른 리포지토리를 부르는 경우 restore로 되돌림)
+     */
+    static String enter(String method) {
+        String previous = CURRENT.get();
+        CURRENT.set(method);
+        return previous;
+    }
+
+    static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
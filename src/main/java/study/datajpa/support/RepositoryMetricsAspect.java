@@ -0,0 +1,96 @@
+package study.datajpa.support;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * MemberRepository, TeamRepository 메서드별 측정 (/actuator/metrics, /actuator/prometheus)
+ * - repository.method: 실행 시간 히스토그램 (예외 이름 태그 포함)
+ * - repository.method.rows: 반환한 row 수 (컬렉션/Slice/Optional/단건 결과만)
+ * - repository.method.statements: 실행된 SQL 문장 수 (StatementCounter 기준, 지연로딩은 호출 밖이라 안잡힘)
+ *
+ * 캐시 aspect 등 다른 aspect보다 바깥에서 감싸서 캐시 히트도 측정에 포함
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final StatementCounter statementCounter;
+
+    @Around("execution(* study.datajpa.repository.MemberRepository+.*(..))" +
+            " || execution(* study.datajpa.repository.TeamRepository+.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = joinPoint.getThis() instanceof TeamRepository ? "TeamRepository" : "MemberRepository";
+        String method = joinPoint.getSignature().getName();
+
+        String previous = RepositoryMethodContext.enter(repository + "." + method);
+        long statementsBefore = statementCounter.current();
+        long start = System.nanoTime();
+        String exception = "none";
+        try {
+            Object result = joinPoint.proceed();
+            recordRows(repository, method, ((MethodSignature) joinPoint.getSignature()).getReturnType(), result);
+            return result;
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            RepositoryMethodContext.restore(previous);
+            Timer.builder("repository.method")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .tag("exception", exception)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            DistributionSummary.builder("repository.method.statements")
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .register(meterRegistry)
+                    .record(statementCounter.current() - statementsBefore);
+        }
+    }
+
+    private void recordRows(String repository, String method, Class<?> returnType, Object result) {
+        //void, count/벌크 수정 결과(숫자), exists, 스트림은 row 수로 안봄
+        if (returnType == void.class || Number.class.isAssignableFrom(returnType) || returnType.isPrimitive()
+                || returnType == Boolean.class || Stream.class.isAssignableFrom(returnType)) {
+            return;
+        }
+        long rows;
+        if (result instanceof Collection) {
+            rows = ((Collection<?>) result).size();
+        } else if (result instanceof Slice) {
+            rows = ((Slice<?>) result).getNumberOfElements();
+        } else if (result instanceof Optional) {
+            rows = ((Optional<?>) result).isPresent() ? 1 : 0;
+        } else {
+            rows = result == null ? 0 : 1;
+        }
+        DistributionSummary.builder("repository.method.rows")
+                .tag("repository", repository)
+                .tag("method", method)
+                .register(meterRegistry)
+                .record(rows);
+    }
+}
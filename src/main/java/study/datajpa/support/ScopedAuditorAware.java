@@ -0,0 +1,56 @@
+package study.datajpa.support;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * AuditingEntityListener는 insert/update 마다 getCurrentAuditor()를 호출함
+ * 벌크 저장이면 엔티티 수만큼 resolver(보안 컨텍스트 조회 등)가 실행되므로
+ * 요청 하나 (요청 밖이면 트랜잭션 하나) 동안은 처음 꺼낸 값을 재사용
+ */
+public class ScopedAuditorAware implements AuditorAware<String> {
+
+    private static final String REQUEST_ATTRIBUTE = ScopedAuditorAware.class.getName() + ".AUDITOR";
+
+    private final Supplier<String> resolver;
+
+    public ScopedAuditorAware(Supplier<String> resolver) {
+        this.resolver = resolver;
+    }
+
+    @Override
+    public Optional<String> getCurrentAuditor() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            String auditor = (String) request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (auditor == null) {
+                auditor = resolver.get();
+                request.setAttribute(REQUEST_ATTRIBUTE, auditor, RequestAttributes.SCOPE_REQUEST);
+            }
+            return Optional.ofNullable(auditor);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            String auditor = (String) TransactionSynchronizationManager.getResource(this);
+            if (auditor == null) {
+                auditor = resolver.get();
+                TransactionSynchronizationManager.bindResource(this, auditor);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(ScopedAuditorAware.this);
+                    }
+                });
+            }
+            return Optional.of(auditor);
+        }
+
+        return Optional.ofNullable(resolver.get());
+    }
+}
@@ -0,0 +1,181 @@
+package study.datajpa.support;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * threshold보다 오래 걸린 SQL만 따로 모아둠 (p6spy 이벤트, /admin/slow-queries)
+ * - 바인딩 값이 들어간 SQL
+ * - 호출한 리포지토리 메서드 (RepositoryMethodContext)
+ * - H2 EXPLAIN 결과 (select만)
+ * 최근 capacity개만 유지 (오래된 것부터 버림)
+ *
+ * EXPLAIN은 느린 쿼리를 실행한 스레드/커넥션/트랜잭션과 상관없이 별도 스레드에서 풀의 다른 커넥션으로 실행
+ * 같은 SQL(바인딩 전)은 explain-interval에 한번만, 대기열이 차면 버림 -> 느린 쿼리가 몰려도 부하가 늘지 않음
+ * 실행계획은 나중에 채워지므로 기록 직후에는 plan이 null일 수 있음
+ */
+@Slf4j
+@Component
+public class SlowQueryLog extends SimpleJdbcEventListener {
+
+    //EXPLAIN 자체도 p6spy 이벤트로 들어오므로 기록하지 않음
+    private static final ThreadLocal<Boolean> EXPLAINING = ThreadLocal.withInitial(() -> false);
+
+    private final long thresholdNanos;
+    private final int capacity;
+    private final boolean explain;
+    private final ObjectProvider<DataSource> dataSource;
+    private final Deque<SlowQuery> entries = new ArrayDeque<>();
+    private final Cache<String, Boolean> recentlyExplained;
+    private final ThreadPoolExecutor explainer;
+
+    /**
+     * DataSource는 p6spy가 이 리스너로 감싸서 만드는 빈이라 바로 주입하면 순환 참조 -> 쓸 때 꺼냄
+     */
+    public SlowQueryLog(@Value("${app.slow-query.threshold:100ms}") Duration threshold,
+                        @Value("${app.slow-query.capacity:200}") int capacity,
+                        @Value("${app.slow-query.explain:true}") boolean explain,
+                        @Value("${app.slow-query.explain-interval:1m}") Duration explainInterval,
+                        @Value("${app.slow-query.explain-queue:20}") int explainQueue,
+                        ObjectProvider<DataSource> dataSource) {
+        this.thresholdNanos = threshold.toNanos();
+        this.capacity = capacity;
+        this.explain = explain;
+        this.dataSource = dataSource;
+        this.recentlyExplained = Caffeine.newBuilder()
+                .maximumSize(1000)
+                .expireAfterWrite(explainInterval)
+                .build();
+        this.explainer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(explainQueue), runnable -> {
+            Thread thread = new Thread(runnable, "slow-query-explain");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        if (timeElapsedNanos < thresholdNanos || EXPLAINING.get()) {
+            return;
+        }
+        String sql = statementInformation.getSqlWithValues();
+        SlowQuery slowQuery = new SlowQuery(LocalDateTime.now(), TimeUnit.NANOSECONDS.toMillis(timeElapsedNanos),
+                RepositoryMethodContext.current(), sql, e != null ? e.getMessage() : null);
+
+        log.warn("slow query {}ms [{}] {}", slowQuery.getElapsedMillis(), slowQuery.getRepositoryMethod(), sql);
+        synchronized (entries) {
+            if (entries.size() >= capacity) {
+                entries.removeFirst();
+            }
+            entries.addLast(slowQuery);
+        }
+        if (explain && isSelect(sql)
+                && recentlyExplained.asMap().putIfAbsent(statementInformation.getSql(), Boolean.TRUE) == null) {
+            try {
+                explainer.execute(() -> slowQuery.plan = explain(sql));
+            } catch (RejectedExecutionException shutdown) {
+                //종료중
+            }
+        }
+    }
+
+    /**
+     * 최근 것부터
+     */
+    public List<SlowQuery> recent() {
+        synchronized (entries) {
+            List<SlowQuery> result = new ArrayList<>(entries);
+            Collections.reverse(result);
+            return result;
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        explainer.shutdownNow();
+    }
+
+    private static boolean isSelect(String sql) {
+        return sql != null && sql.trim().toLowerCase().startsWith("select");
+    }
+
+    /**
+     * 원래 쿼리와는 다른 커넥션, 읽기 전용
+     * 실행계획을 못구해도(바인딩 값이 들어간 SQL이 H2에서 안읽히는 경우 등) 예외는 삼키고 plan 없이 둠
+     */
+    private String explain(String sql) {
+        DataSource source = dataSource.getIfAvailable();
+        if (source == null) {
+            return null;
+        }
+        EXPLAINING.set(true);
+        try (Connection connection = source.getConnection()) {
+            connection.setReadOnly(true);
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("explain " + sql)) {
+                StringBuilder plan = new StringBuilder();
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+                return plan.toString().trim();
+            }
+        } catch (SQLException explainFailure) {
+            log.debug("explain 실패: {}", explainFailure.getMessage());
+            return null;
+        } finally {
+            EXPLAINING.remove();
+        }
+    }
+
+    @Getter
+    public static class SlowQuery {
+        private final LocalDateTime executedAt;
+        private final long elapsedMillis;
+        private final String repositoryMethod;
+        private final String sql;
+        private final String error;
+        //EXPLAIN 스레드가 나중에 채움
+        private volatile String plan;
+
+        private SlowQuery(LocalDateTime executedAt, long elapsedMillis, String repositoryMethod,
+                          String sql, String error) {
+            this.executedAt = executedAt;
+            this.elapsedMillis = elapsedMillis;
+            this.repositoryMethod = repositoryMethod;
+            this.sql = sql;
+            this.error = error;
+        }
+    }
+}
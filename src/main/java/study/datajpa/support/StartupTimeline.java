@@ -0,0 +1,149 @@
+package study.datajpa.support;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.event.ApplicationContextInitializedEvent;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.boot.context.event.ApplicationStartingEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.SmartApplicationListener;
+import org.springframework.core.Ordered;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 기동 단계별 시각 + 초기화가 오래 걸린 빈 (/admin/startup)
+ * ApplicationStartingEvent부터 받아야 해서 빈이 아니라 META-INF/spring.factories로 등록
+ * 컨텍스트가 준비되면 자기 자신을 싱글톤으로 등록해서 주입받을 수 있게 함
+ *
+ * 빈 시간은 초기화 단계(@PostConstruct, afterPropertiesSet 등)만 잼 (생성, 주입 제외)
+ */
+@Slf4j
+public class StartupTimeline implements SmartApplicationListener, Ordered {
+
+    private static final List<Class<?>> PHASES = Arrays.asList(
+            ApplicationStartingEvent.class,
+            ApplicationEnvironmentPreparedEvent.class,
+            ApplicationContextInitializedEvent.class,
+            ApplicationPreparedEvent.class,
+            ContextRefreshedEvent.class,
+            ApplicationStartedEvent.class,
+            ApplicationReadyEvent.class);
+
+    private static final int SLOWEST_BEANS = 20;
+
+    private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final List<Phase> phases = new ArrayList<>();
+    private final Map<String, Long> beanInitStartNanos = new ConcurrentHashMap<>();
+    private final Map<String, Long> beanInitNanos = new ConcurrentHashMap<>();
+    private long startingMillis;
+
+    @Override
+    public boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
+        return PHASES.contains(eventType);
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (event instanceof ContextRefreshedEvent
+                && ((ContextRefreshedEvent) event).getApplicationContext().getParent() != null) {
+            return; //자식 컨텍스트는 무시
+        }
+        long now = System.currentTimeMillis();
+        if (event instanceof ApplicationStartingEvent) {
+            startingMillis = now;
+        }
+        synchronized (phases) {
+            phases.add(new Phase(event.getClass().getSimpleName(), now - jvmStartMillis,
+                    startingMillis == 0 ? 0 : now - startingMillis));
+        }
+
+        if (event instanceof ApplicationPreparedEvent) {
+            ConfigurableApplicationContext context = ((ApplicationPreparedEvent) event).getApplicationContext();
+            context.getBeanFactory().registerSingleton("startupTimeline", this);
+            context.getBeanFactory().addBeanPostProcessor(new BeanInitTiming());
+        }
+        if (event instanceof ApplicationReadyEvent) {
+            log.info("기동 완료: JVM 시작부터 {}ms, SpringApplication 시작부터 {}ms, 초기화가 오래 걸린 빈 {}",
+                    now - jvmStartMillis, now - startingMillis, slowestBeans().stream()
+                            .limit(5)
+                            .map(bean -> bean.getName() + "=" + bean.getInitMillis() + "ms")
+                            .collect(Collectors.joining(", ")));
+        }
+    }
+
+    public List<Phase> getPhases() {
+        synchronized (phases) {
+            return new ArrayList<>(phases);
+        }
+    }
+
+    public List<BeanInit> slowestBeans() {
+        return beanInitNanos.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(SLOWEST_BEANS)
+                .map(entry -> new BeanInit(entry.getKey(), entry.getValue() / 1_000_000))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private class BeanInitTiming implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+            beanInitStartNanos.put(beanName, System.nanoTime());
+            return bean;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+            Long start = beanInitStartNanos.remove(beanName);
+            if (start != null) {
+                beanInitNanos.put(beanName, System.nanoTime() - start);
+            }
+            return bean;
+        }
+    }
+
+    @Getter
+    public static class Phase {
+        private final String event;
+        private final long sinceJvmStartMillis;
+        private final long sinceStartingMillis;
+
+        private Phase(String event, long sinceJvmStartMillis, long sinceStartingMillis) {
+            this.event = event;
+            this.sinceJvmStartMillis = sinceJvmStartMillis;
+            this.sinceStartingMillis = sinceStartingMillis;
+        }
+    }
+
+    @Getter
+    public static class BeanInit {
+        private final String name;
+        private final long initMillis;
+
+        private BeanInit(String name, long initMillis) {
+            this.name = name;
+            this.initMillis = initMillis;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package study.datajpa.support;
+
+/**
+ * 허용된 SQL 문장 수를 넘겨서 실행하려고 할 때 (N+1 의심)
+ */
+public class StatementBudgetExceededException extends RuntimeException {
+
+    public StatementBudgetExceededException(int max, String sql) {
+        super("SQL 문장 수 예산(" + max + ") 초과: " + sql);
+    }
+}
@@ -0,0 +1,66 @@
+package study.datajpa.support;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 요청마다 SQL 문장 수 예산을 걸어둠
+ * mode
+ * - off  : 안셈
+ * - log  : 요청이 끝난 후 예산을 넘었으면 경고 로그
+ * - fail : 넘는 순간 StatementBudgetExceededException (요청 실패)
+ * 요청 스레드에서 실행된 SQL만 셈 (MemberLoader 같은 다른 스레드 조회는 제외)
+ */
+@Slf4j
+@Component
+public class StatementBudgetInterceptor implements HandlerInterceptor {
+
+    private final StatementCounter statementCounter;
+    private final String mode;
+    private final int defaultMax;
+
+    public StatementBudgetInterceptor(StatementCounter statementCounter,
+                                      @Value("${app.statement-budget.mode:log}") String mode,
+                                      @Value("${app.statement-budget.max-per-request:20}") int defaultMax) {
+        this.statementCounter = statementCounter;
+        this.mode = mode;
+        this.defaultMax = defaultMax;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"off".equals(mode)) {
+            statementCounter.begin(maxFor(handler), "fail".equals(mode));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if ("off".equals(mode)) {
+            return;
+        }
+        long used = statementCounter.end();
+        int max = maxFor(handler);
+        if (used > max) {
+            log.warn("SQL 문장 수 예산 초과 {} {} : {}개 실행 (예산 {}개)",
+                    request.getMethod(), request.getRequestURI(), used, max);
+        }
+    }
+
+    private int maxFor(Object handler) {
+        if (handler instanceof HandlerMethod) {
+            StatementBudget budget = ((HandlerMethod) handler).getMethodAnnotation(StatementBudget.class);
+            if (budget != null) {
+                return budget.value();
+            }
+        }
+        return defaultMax;
+    }
+}
@@ -0,0 +1,93 @@
+package study.datajpa.support;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * p6spy 이벤트로 현재 스레드에서 실행된 SQL 문장 수를 셈
+ * (p6spy-spring-boot-starter가 JdbcEventListener 빈을 자동으로 등록해줌)
+ * executeBatch는 DB 왕복 한번이라 한 문장으로 셈
+ *
+ * 테스트: count(...)로 세거나 withinBudget(max, ...)으로 초과시 바로 실패
+ * 런타임: StatementBudgetInterceptor가 요청마다 예산을 걸어둠
+ */
+@Component
+public class StatementCounter extends SimpleJdbcEventListener {
+
+    private final ThreadLocal<Budget> budget = new ThreadLocal<>();
+    private final ThreadLocal<long[]> executed = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public void onBeforeAnyExecute(StatementInformation statementInformation) {
+        long count = ++executed.get()[0];
+        Budget current = budget.get();
+        if (current != null && current.failFast && count - current.start > current.max) {
+            throw new StatementBudgetExceededException(current.max, statementInformation.getSql());
+        }
+    }
+
+    /**
+     * 현재 스레드에서 지금까지 실행된 문장 수
+     */
+    public long current() {
+        return executed.get()[0];
+    }
+
+    /**
+     * runnable 안에서 실행된 문장 수
+     */
+    public long count(Runnable runnable) {
+        long start = current();
+        runnable.run();
+        return current() - start;
+    }
+
+    /**
+     * max개 넘게 실행되면 넘는 순간 StatementBudgetExceededException
+     */
+    public <T> T withinBudget(int max, Supplier<T> supplier) {
+        Budget previous = budget.get();
+        budget.set(new Budget(max, current(), true));
+        try {
+            return supplier.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * 예산 시작 (요청 단위). end()에서 실제 사용한 문장 수를 돌려줌
+     */
+    public void begin(int max, boolean failFast) {
+        budget.set(new Budget(max, current(), failFast));
+    }
+
+    public long end() {
+        Budget current = budget.get();
+        budget.remove();
+        return current == null ? 0 : current() - current.start;
+    }
+
+    private void restore(Budget previous) {
+        if (previous == null) {
+            budget.remove();
+        } else {
+            budget.set(previous);
+        }
+    }
+
+    private static class Budget {
+        private final int max;
+        private final long start;
+        private final boolean failFast;
+
+        private Budget(int max, long start, boolean failFast) {
+            this.max = max;
+            this.start = start;
+            this.failFast = failFast;
+        }
+    }
+}
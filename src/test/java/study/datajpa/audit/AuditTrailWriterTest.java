@@ -0,0 +1,64 @@
+package study.datajpa.audit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.AuditTrail;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.AuditTrailRepository;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+//스케줄러가 끼어들지 않도록 주기를 길게 잡고 flush()를 직접 호출
+@SpringBootTest(properties = {"app.audit-trail.enabled=true", "app.audit-trail.flush-interval=1h"})
+class AuditTrailWriterTest {
+
+    @Autowired AuditTrailWriter auditTrailWriter;
+    @Autowired AuditTrailRepository auditTrailRepository;
+    @Autowired MemberRepository memberRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    public void writeBehind() {
+        //given
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Member member = tx.execute(status -> memberRepository.save(new Member("audit", 10)));
+        tx.executeWithoutResult(status -> memberRepository.findById(member.getId()).get().setAge(11));
+
+        //커밋 전에는 아무것도 안쌓임
+        String entityId = String.valueOf(member.getId());
+        assertThat(auditTrailRepository.findByEntityTypeAndEntityIdOrderByIdAsc("Member", entityId)).isEmpty();
+
+        //when
+        auditTrailWriter.flush();
+
+        //then
+        List<AuditTrail> trails = auditTrailRepository.findByEntityTypeAndEntityIdOrderByIdAsc("Member", entityId);
+        assertThat(trails).extracting(AuditTrail::getAction)
+                .containsExactly(AuditTrail.Action.INSERT, AuditTrail.Action.UPDATE);
+        assertThat(trails.get(0).getChangedBy()).isEqualTo(memberRepository.findById(member.getId()).get().getCreatedBy());
+    }
+
+    @Test
+    public void rollbackIsNotRecorded() {
+        //given
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long id = tx.execute(status -> {
+            Member member = memberRepository.save(new Member("auditRollback", 10));
+            memberRepository.flush();
+            status.setRollbackOnly();
+            return member.getId();
+        });
+
+        //when
+        auditTrailWriter.flush();
+
+        //then
+        assertThat(auditTrailRepository.findByEntityTypeAndEntityIdOrderByIdAsc("Member", String.valueOf(id))).isEmpty();
+    }
+}
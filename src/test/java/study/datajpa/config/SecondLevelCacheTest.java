@@ -0,0 +1,59 @@
+package study.datajpa.config;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.TeamRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = "app.cache.second-level.enabled=true")
+class SecondLevelCacheTest {
+
+    @Autowired TeamRepository teamRepository;
+    @Autowired EntityManager em;
+    @Autowired EntityManagerFactory emf;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    public void teamCacheHitMissAndEviction() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long teamId = teamRepository.save(new Team("cachedTeam")).getId();
+        try {
+            emf.getCache().evict(Team.class);
+            Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+            statistics.clear();
+
+            //처음은 miss -> DB 조회 후 캐시에 넣음, 다음 트랜잭션(새 영속성 컨텍스트)에서는 hit
+            tx.executeWithoutResult(status -> em.find(Team.class, teamId));
+            tx.executeWithoutResult(status -> em.find(Team.class, teamId));
+
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(SecondLevelCacheConfig.TEAM_REGION);
+            assertThat(region.getMissCount()).isEqualTo(1);
+            assertThat(region.getPutCount()).isEqualTo(1);
+            assertThat(region.getHitCount()).isEqualTo(1);
+
+            //벌크 update는 캐시를 안거치므로 하이버네이트가 리전을 비움 -> 바뀐 값을 다시 읽어옴
+            tx.executeWithoutResult(status -> em.createQuery("update Team t set t.name = :name where t.id = :id")
+                    .setParameter("name", "renamedTeam")
+                    .setParameter("id", teamId)
+                    .executeUpdate());
+            assertThat(emf.getCache().contains(Team.class, teamId)).isFalse();
+            String name = tx.execute(status -> em.find(Team.class, teamId).getName());
+            assertThat(name).isEqualTo("renamedTeam");
+            assertThat(statistics.getDomainDataRegionStatistics(SecondLevelCacheConfig.TEAM_REGION).getMissCount())
+                    .isEqualTo(2);
+        } finally {
+            tx.executeWithoutResult(status -> teamRepository.deleteById(teamId));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package study.datajpa.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.support.StatementCounter;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 테스트 트랜잭션은 롤백 (MockMvc 요청도 같은 스레드라 롤백 전 데이터가 보임)
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class TeamControllerTest {
+
+    private static final int TEAMS = 6;
+    private static final int MEMBERS_PER_TEAM = 3;
+
+    @Autowired MockMvc mockMvc;
+    @Autowired TeamRepository teamRepository;
+    @Autowired MemberRepository memberRepository;
+    @Autowired StatementCounter statementCounter;
+    @Autowired EntityManager em;
+
+    private List<Team> saveTeams() {
+        List<Team> teams = new ArrayList<>();
+        for (int i = 0; i < TEAMS; i++) {
+            Team team = teamRepository.save(new Team("pagedTeam" + i));
+            for (int j = 0; j < MEMBERS_PER_TEAM; j++) {
+                memberRepository.save(new Member("pagedMember" + i + "-" + j, 10, team));
+            }
+            teams.add(team);
+        }
+        em.flush();
+        em.clear();
+        return teams;
+    }
+
+    /**
+     * 팀 페이지 + count + 회원 IN 쿼리, 페이지 크기와 상관없이 3번
+     */
+    @Test
+    public void teamsWithMembers() throws Exception {
+        //given
+        List<Team> teams = saveTeams();
+
+        //when
+        //최신 팀부터 -> 방금 넣은 팀 5개
+        long statements = statementCounter.count(() -> {
+            try {
+                mockMvc.perform(get("/teams").param("size", "5").param("sort", "id,desc"))
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.content.length()").value(5))
+                        .andExpect(jsonPath("$.content[0].name").value(teams.get(TEAMS - 1).getName()))
+                        .andExpect(jsonPath("$.content[0].members.length()").value(MEMBERS_PER_TEAM))
+                        .andExpect(jsonPath("$.content[0].members[0].teamName").value(teams.get(TEAMS - 1).getName()));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        //then
+        assertThat(statements).isEqualTo(3);
+    }
+
+    /**
+     * default_batch_fetch_size: 지연로딩 컬렉션/프록시를 하나씩이 아니라 IN 쿼리로 한번에 초기화
+     */
+    @Test
+    public void batchFetchInsteadOfNPlusOne() throws Exception {
+        //given
+        saveTeams();
+        PageRequest page = PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "id"));
+
+        //when
+        //팀 5개의 members 컬렉션: 팀 조회 1 + 컬렉션 IN 1 (배치 없으면 1 + 5)
+        long collectionStatements = statementCounter.count(() ->
+                teamRepository.findAll(page).forEach(team -> assertThat(team.getMembers()).hasSize(MEMBERS_PER_TEAM)));
+        em.clear();
+
+        //회원 3명(각자 다른 팀)의 team 프록시: 회원 조회 1 + 팀 IN 1 (배치 없으면 1 + 3)
+        long proxyStatements = statementCounter.count(() ->
+                em.createQuery("select m from Member m where m.username in :names", Member.class)
+                        .setParameter("names", List.of("pagedMember0-0", "pagedMember1-0", "pagedMember2-0"))
+                        .getResultList()
+                        .forEach(member -> assertThat(member.getTeam().getName()).startsWith("pagedTeam")));
+
+        //then
+        assertThat(collectionStatements).isEqualTo(2);
+        assertThat(proxyStatements).isEqualTo(2);
+    }
+}
@@ -0,0 +1,44 @@
+package study.datajpa.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * replica-0: primary와 같은 DB에 붙는 두번째 풀 (lag 0)
+ * replica-1: 복제가 안되는 다른 메모리 DB (heartbeat 없음 -> 라우팅 제외)
+ */
+@SpringBootTest(properties = {
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.nodes[0].url=${spring.datasource.url}",
+        "app.datasource.replica.nodes[1].url=jdbc:h2:mem:notReplicated"})
+class ReplicaRoutingTest {
+
+    @Autowired ReplicaRouting replicaRouting;
+    @Autowired MemberRepository memberRepository;
+
+    @Test
+    public void readOnlyTransactionGoesToReplica() {
+        //given
+        Replica replica = replicaRouting.getDataSource().getReplicas().get(0);
+        Replica notReplicated = replicaRouting.getDataSource().getReplicas().get(1);
+        long before = replica.getRoutedCount();
+
+        //when
+        memberRepository.save(new Member("replicaRouting", 10)); //읽기/쓰기 -> primary
+        long afterWrite = replica.getRoutedCount();
+        Member found = memberRepository.findReadOnlyByUsername("replicaRouting"); //읽기 전용 -> 레플리카
+
+        //then
+        assertThat(afterWrite).isEqualTo(before);
+        assertThat(replica.getRoutedCount()).isEqualTo(before + 1);
+        assertThat(found.getUsername()).isEqualTo("replicaRouting");
+
+        assertThat(notReplicated.isAvailable()).isFalse();
+        assertThat(notReplicated.getRoutedCount()).isEqualTo(0);
+    }
+}
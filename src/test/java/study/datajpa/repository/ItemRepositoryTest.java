@@ -5,7 +5,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import study.datajpa.entity.Item;
 
-import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
 
 @SpringBootTest
 class ItemRepositoryTest {
@@ -21,4 +27,54 @@ class ItemRepositoryTest {
         
         //then
     }
-}
\ No newline at end of file
+
+    @Test
+    public void upsertAll() throws Exception {
+        //given
+        String prefix = UUID.randomUUID().toString();
+        itemRepository.insertAll(Arrays.asList(new Item(prefix + "-1"), new Item(prefix + "-2")));
+
+        //when
+        int inserted = itemRepository.upsertAll(Arrays.asList(
+                new Item(prefix + "-1"), new Item(prefix + "-2"), new Item(prefix + "-3")));
+
+        //then
+        //이미 있는 두개는 건너뛰고 새로운 한개만 insert
+        assertThat(inserted).isEqualTo(1);
+        assertThat(itemRepository.findById(prefix + "-3")).isPresent();
+    }
+
+    /**
+     * 배치 크기(100)를 넘겨서 여러 문장으로 나뉘어도 전부 들어가야 함
+     * saveAll과의 속도 비교는 JMH (ItemInsertBenchmark)
+     */
+    @Test
+    public void insertAll() throws Exception {
+        //given
+        List<Item> items = items(250);
+        List<String> ids = items.stream().map(Item::getId).collect(Collectors.toList());
+
+        try {
+            //when
+            int inserted = itemRepository.insertAll(items);
+
+            //then
+            assertThat(inserted).isEqualTo(250);
+            List<Item> found = itemRepository.findAllById(ids);
+            assertThat(found).extracting(Item::getId).containsExactlyInAnyOrderElementsOf(ids);
+            //createdDate가 채워져 있어야 새 엔티티로 취급 안함
+            assertThat(found).noneMatch(Item::isNew);
+        } finally {
+            itemRepository.deleteAll(itemRepository.findAllById(ids));
+        }
+    }
+
+    private List<Item> items(int size) {
+        String prefix = UUID.randomUUID().toString();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            items.add(new Item(prefix + "-" + i));
+        }
+        return items;
+    }
+}
@@ -0,0 +1,174 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.dto.MemberSummary;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.support.StatementCounter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest(properties = "app.member-loader.window=300ms")
+class MemberLoaderTest {
+
+    @Autowired MemberLoader memberLoader;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired StatementCounter statementCounter;
+
+    @Test
+    public void concurrentFindById() throws Exception {
+        //given
+        Member hot = memberRepository.save(new Member("hot", 10));
+        Member other = memberRepository.save(new Member("other", 20));
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Callable<Optional<MemberSummary>>> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Long id = i % 10 == 0 ? other.getId() : hot.getId();
+            tasks.add(() -> memberLoader.findSummary(id));
+        }
+
+        //when
+        List<Future<Optional<MemberSummary>>> results = executor.invokeAll(tasks);
+        executor.shutdown();
+
+        //then
+        for (int i = 0; i < results.size(); i++) {
+            String expected = i % 10 == 0 ? "other" : "hot";
+            assertThat(results.get(i).get().get().getUsername()).isEqualTo(expected);
+        }
+        assertThat(memberLoader.findSummary(-1L)).isEmpty();
+    }
+
+    /**
+     * 여러 스레드가 같은 결과를 받으므로 엔티티가 아니라 팀 이름까지 담긴 불변 값
+     */
+    @Test
+    public void summaryIncludesTeamName() throws Exception {
+        Team team = teamRepository.save(new Team("loaderTeam"));
+        Member member = memberRepository.save(new Member("loaderSummary", 10, team));
+
+        Optional<MemberSummary> found = memberLoader.findSummary(member.getId());
+
+        assertThat(found).isPresent();
+        assertThat(found.get().getUsername()).isEqualTo("loaderSummary");
+        assertThat(found.get().getTeamName()).isEqualTo("loaderTeam");
+    }
+
+    /**
+     * 진행중인 조회가 없으면 window(300ms)를 기다리지 않음
+     */
+    @Test
+    public void idleFindByIdDoesNotWait() throws Exception {
+        Member member = memberRepository.save(new Member("loaderIdle", 10));
+        memberLoader.findSummary(member.getId());
+
+        long start = System.nanoTime();
+        Optional<MemberSummary> found = memberLoader.findSummary(member.getId());
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(found).isPresent();
+        assertThat(elapsed).isLessThan(Duration.ofMillis(300));
+    }
+
+    /**
+     * 첫 조회가 진행중인 동안 들어온 다른 id들은 IN 쿼리 하나로 묶임
+     * 시간 대신 훅으로 순서를 고정: 첫 조회를 붙잡아두고, 19개가 전부 묶음에 쌓인 다음에 flush
+     */
+    @Test
+    public void concurrentIdsShareOneInQuery() throws Exception {
+        //given
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ids.add(memberRepository.save(new Member("loaderBatch" + i, 10)).getId());
+        }
+        Long first = ids.get(0);
+        List<Long> rest = ids.subList(1, ids.size());
+
+        CountDownLatch firstLoading = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        CountDownLatch allQueued = new CountDownLatch(1);
+        memberLoader.hooks = new MemberLoader.Hooks() {
+            @Override
+            public void queued(int pendingSize) {
+                if (pendingSize == rest.size()) {
+                    allQueued.countDown();
+                }
+            }
+
+            @Override
+            public void beforeFlush() {
+                await(allQueued);
+            }
+
+            @Override
+            public void beforeLoad(Set<Long> batch) {
+                if (batch.contains(first)) {
+                    firstLoading.countDown();
+                    await(releaseFirst);
+                }
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(ids.size());
+
+        try {
+            //when
+            //조회 스레드에서 실행된 SQL만 셈
+            List<Future<Long>> statements = new ArrayList<>();
+            List<Future<Optional<MemberSummary>>> results = new ArrayList<>();
+            results.add(executor.submit(() -> memberLoader.findSummary(first)));
+            assertThat(firstLoading.await(5, TimeUnit.SECONDS)).isTrue();
+            for (Long id : rest) {
+                CompletableFuture<Optional<MemberSummary>> result = new CompletableFuture<>();
+                statements.add(executor.submit(() ->
+                        statementCounter.count(() -> result.complete(memberLoader.findSummary(id)))));
+                results.add(result);
+            }
+            assertThat(allQueued.await(5, TimeUnit.SECONDS)).isTrue();
+            releaseFirst.countDown();
+
+            //then
+            for (int i = 0; i < ids.size(); i++) {
+                assertThat(results.get(i).get(5, TimeUnit.SECONDS).get().getId()).isEqualTo(ids.get(i));
+            }
+            //나머지 19개 id는 in (...) 한번
+            long total = 0;
+            for (Future<Long> count : statements) {
+                total += count.get(5, TimeUnit.SECONDS);
+            }
+            assertThat(total).isEqualTo(1);
+        } finally {
+            releaseFirst.countDown();
+            memberLoader.hooks = new MemberLoader.Hooks() {
+            };
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("timeout");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package study.datajpa.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.cache.MemberQueryCache;
+import study.datajpa.support.StatementCounter;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * 조회 결과 캐시는 커밋 이후 무효화되므로 테스트 트랜잭션 없이 검증
+ * hit이면 Member 2차 캐시에서 다시 읽으므로 2차 캐시도 켬
+ * 공유 DB에 커밋되므로 만든 회원은 finally에서 지움
+ */
+@SpringBootTest(properties = {"app.cache.member-query.enabled=true", "app.cache.second-level.enabled=true"})
+class MemberQueryCacheTest {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired CacheManager cacheManager;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired StatementCounter statementCounter;
+    @Autowired EntityManagerFactory emf;
+
+    @Test
+    public void cacheAndEvictByUsername() throws Exception {
+        //given
+        String username = "cache-" + UUID.randomUUID();
+        List<Long> created = new ArrayList<>();
+        try {
+            Member member = memberRepository.save(new Member(username, 10));
+            created.add(member.getId());
+
+            //when
+            List<Member> first = memberRepository.findByUsername(username);
+            long hits = hitCount(MemberQueryCache.FIND_BY_USERNAME);
+            List<Member> second = new ArrayList<>();
+            long statements = statementCounter.count(() -> second.addAll(memberRepository.findByUsername(username)));
+
+            //then
+            //두번째는 캐시 hit, 캐시에는 id만 있고 회원은 2차 캐시에서 읽음 -> SQL 없음
+            //엔티티는 호출마다 새로 만든 인스턴스
+            assertThat(hitCount(MemberQueryCache.FIND_BY_USERNAME)).isEqualTo(hits + 1);
+            assertThat(statements).isEqualTo(0);
+            assertThat(second).extracting(Member::getId).containsExactly(member.getId());
+            assertThat(second.get(0)).isNotSameAs(first.get(0));
+
+            //같은 username 회원이 저장되면 캐시 제거
+            created.add(memberRepository.save(new Member(username, 20)).getId());
+            assertThat(memberRepository.findByUsername(username)).hasSize(2);
+
+            //username이 바뀌면 이전 이름 캐시도 제거
+            Member saved = memberRepository.findById(member.getId()).get();
+            saved.setUsername(username + "-renamed");
+            memberRepository.save(saved);
+            assertThat(memberRepository.findByUsername(username)).hasSize(1);
+        } finally {
+            created.forEach(memberRepository::deleteById);
+        }
+    }
+
+    @Test
+    public void cachedIdsReturnCurrentState() throws Exception {
+        //given
+        String old = "old-" + UUID.randomUUID();
+        Member member = memberRepository.save(new Member(old, 1000));
+        try {
+            memberRepository.findByNames(Arrays.asList(old));
+            long hits = hitCount(MemberQueryCache.FIND_BY_NAMES);
+
+            //when
+            memberRepository.bulkAgePlus(1000);
+
+            //then
+            //벌크 수정은 Member 2차 캐시 리전을 비우므로, 캐시된 id로 다시 읽으면 바뀐 나이가 보임
+            List<Member> result = memberRepository.findByNames(Arrays.asList(old));
+            assertThat(hitCount(MemberQueryCache.FIND_BY_NAMES)).isEqualTo(hits + 1);
+            assertThat(result.get(0).getAge()).isEqualTo(1001);
+        } finally {
+            memberRepository.deleteById(member.getId());
+        }
+    }
+
+    @Test
+    public void staleEntryIsDiscarded() throws Exception {
+        //given
+        String username = "stale-" + UUID.randomUUID();
+        Member member = memberRepository.save(new Member(username, 10));
+        try {
+            assertThat(memberRepository.findOptionalByUsername(username)).isPresent();
+
+            //when
+            //하이버네이트 이벤트를 안거치는 변경이라 조회 캐시가 무효화되지 않음
+            //(2차 캐시도 모르는 변경이라 외부에서 바꾼 쪽이 리전을 비워줘야 함)
+            jdbcTemplate.update("update member set username = ? where member_id = ?", username + "-jdbc", member.getId());
+            emf.getCache().evict(Member.class, member.getId());
+
+            //then
+            //캐시된 id로 읽은 회원의 username이 달라졌으므로 버리고 다시 조회
+            assertThat(memberRepository.findOptionalByUsername(username)).isEmpty();
+        } finally {
+            memberRepository.deleteById(member.getId());
+        }
+    }
+
+    @Test
+    public void processInChunksEvictsPreviousUsername() throws Exception {
+        //given
+        String old = "chunk-old-" + UUID.randomUUID();
+        Member member = memberRepository.save(new Member(old, 10));
+        try {
+            memberRepository.findByUsername(old);
+            assertThat(cacheManager.getCache(MemberQueryCache.FIND_BY_USERNAME).get(old)).isNotNull();
+
+            //when
+            memberRepository.processInChunks(100, chunk -> {
+                List<Member> renamed = new ArrayList<>();
+                for (Member m : chunk) {
+                    if (m.getId().equals(member.getId())) {
+                        m.setUsername(old + "-renamed");
+                        renamed.add(m);
+                    }
+                }
+                return renamed;
+            });
+
+            //then
+            //바뀌기 전 이름으로 캐시된 항목도 제거됨
+            assertThat(cacheManager.getCache(MemberQueryCache.FIND_BY_USERNAME).get(old)).isNull();
+            assertThat(memberRepository.findByUsername(old)).isEmpty();
+        } finally {
+            memberRepository.deleteById(member.getId());
+        }
+    }
+
+    private long hitCount(String cacheName) {
+        return ((Cache<?, ?>) cacheManager.getCache(cacheName).getNativeCache()).stats().hitCount();
+    }
+}
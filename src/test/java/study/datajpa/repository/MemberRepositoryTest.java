@@ -1,21 +1,35 @@
 package study.datajpa.repository;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.Rollback;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
+import study.datajpa.repository.projection.GeneratedProjectionFactory;
+import study.datajpa.support.StatementBudgetExceededException;
+import study.datajpa.support.StatementCounter;
 
 import javax.persistence.EntityManager;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -30,6 +44,9 @@ class MemberRepositoryTest {
      * 같은 트랜잭션이면 같은 엔티티매니저가 불러와져서 동작함
      */
     @Autowired EntityManager em;
+    @Autowired StatementCounter statementCounter;
+    @Autowired GeneratedProjectionFactory projectionFactory;
+    @Autowired PlatformTransactionManager transactionManager;
 
     @Test
     public void testMember() throws Exception {
@@ -373,6 +390,95 @@ class MemberRepositoryTest {
 
     }
 
+    @Test
+    public void generatedProjections() throws Exception {
+        //given
+        Team teamA = new Team("teamGen");
+        em.persist(teamA);
+        em.persist(new Member("gen1", 0, teamA));
+        em.persist(new Member("gen2", 0));
+
+        em.flush();
+        em.clear();
+
+        //when
+        List<NestedClosedProjections> nested =
+                memberRepository.findProjectionsByUsername("gen1", NestedClosedProjections.class);
+        List<NestedClosedProjections> noTeam =
+                memberRepository.findProjectionsByUsername("gen2", NestedClosedProjections.class);
+        List<UsernameOnlyDto> dto = memberRepository.findProjectionsByUsername("gen1", UsernameOnlyDto.class);
+
+        //then
+        //JDK 프록시가 아니라 생성된 구현 클래스
+        assertThat(Proxy.isProxyClass(nested.get(0).getClass())).isFalse();
+        assertThat(nested.get(0).getUsername()).isEqualTo("gen1");
+        assertThat(nested.get(0).getTeam().getName()).isEqualTo("teamGen");
+        assertThat(noTeam.get(0).getTeam()).isNull();
+        assertThat(dto).extracting(UsernameOnlyDto::getUsername).containsExactly("gen1");
+    }
+
+    public interface SelfReferencingProjection {
+        String getUsername();
+        SelfReferencingProjection getManager();
+    }
+
+    @Test
+    public void selfReferencingProjection() throws Exception {
+        assertThatThrownBy(() -> projectionFactory.mapperFor(SelfReferencingProjection.class))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("자기 자신을 참조하는 프로젝션");
+    }
+
+    public interface OpenProjection {
+        @Value("#{target.username + ' ' + target.age}")
+        String getUsernameAndAge();
+    }
+
+    /**
+     * 중첩 닫힌 프로젝션은 필요한 컬럼만 조회 -> 영속성 컨텍스트에 엔티티가 안생김
+     */
+    @Test
+    public void columnPrunedProjections() throws Exception {
+        //given
+        Team team = new Team("teamPruned");
+        em.persist(team);
+        em.persist(new Member("pruned", 7, team));
+        em.flush();
+        em.clear();
+
+        //when
+        List<NestedClosedProjections> result =
+                memberRepository.findProjectionsByUsername("pruned", NestedClosedProjections.class);
+
+        //then
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isEqualTo(0);
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getUsername()).isEqualTo("pruned");
+        assertThat(result.get(0).getTeam().getName()).isEqualTo("teamPruned");
+        assertThat(projectionFactory.rowMapperFor(NestedClosedProjections.class).paths())
+                .containsExactly("team.name", "username");
+    }
+
+    /**
+     * 열린 프로젝션은 컬럼 row로 못만듦 -> rowMapperFor에서 바로 실패, 조회는 엔티티를 올려서 처리
+     */
+    @Test
+    public void openProjections() throws Exception {
+        //given
+        em.persist(new Member("open", 7));
+        em.flush();
+        em.clear();
+
+        //when
+        List<OpenProjection> result = memberRepository.findProjectionsByUsername("open", OpenProjection.class);
+
+        //then
+        assertThat(projectionFactory.supportsRows(OpenProjection.class)).isFalse();
+        assertThatThrownBy(() -> projectionFactory.rowMapperFor(OpenProjection.class))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(result).extracting(OpenProjection::getUsernameAndAge).containsExactly("open 7");
+    }
+
     @Test
     public void nativeQuery() throws Exception {
         //given
@@ -391,4 +497,326 @@ class MemberRepositoryTest {
         List<Member> result = memberRepository.findByUsername("m1");
         System.out.println("result = " + result);
     }
-}
\ No newline at end of file
+
+    /**
+     * 키셋 페이징
+     * 마지막 회원의 키로 다음 페이지를 조회해도 중복/누락 없이 이어져야 함
+     */
+    @Test
+    public void keysetPaging() throws Exception {
+        //given
+        //다른 테스트 데이터와 섞이지 않도록 keyset으로 시작하는 이름 사용
+        memberRepository.save(new Member("keyset3", 10));
+        memberRepository.save(new Member("keyset1", 10));
+        memberRepository.save(new Member("keyset2", 10));
+        memberRepository.save(new Member("keyset1", 20));
+        memberRepository.save(new Member("keyset4", 10));
+
+        PageRequest limit = PageRequest.of(0, 2);
+
+        //when
+        Slice<Member> first = memberRepository.findNextByUsername("keyset", 0L, limit);
+        Member last = first.getContent().get(1);
+        Slice<Member> second = memberRepository.findNextByUsername(last.getUsername(), last.getId(), limit);
+        Member secondLast = second.getContent().get(1);
+        Slice<Member> third = memberRepository.findNextByUsername(secondLast.getUsername(), secondLast.getId(), limit);
+
+        //then
+        assertThat(first.getContent()).extracting("username").containsExactly("keyset1", "keyset1");
+        assertThat(first.getContent().get(0).getId()).isLessThan(first.getContent().get(1).getId());
+        assertThat(second.getContent()).extracting("username").containsExactly("keyset2", "keyset3");
+        assertThat(third.getContent().get(0).getUsername()).isEqualTo("keyset4");
+        assertThat(first.hasNext()).isTrue();
+
+        Long firstId = first.getContent().get(0).getId();
+        Slice<Member> byId = memberRepository.findNextById(firstId, limit);
+        assertThat(byId.getContent()).allMatch(m -> m.getId() > firstId);
+    }
+
+    /**
+     * count 전략별 페이징
+     */
+    @Test
+    public void pagingCountStrategy() throws Exception {
+        //given
+        for (int i = 1; i <= 5; i++) {
+            memberRepository.save(new Member("count" + i, 77));
+        }
+        PageRequest pageRequest = PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "username"));
+
+        //when
+        Slice<Member> slice = memberRepository.findByAge(77, pageRequest, CountStrategy.SLICE);
+        Slice<Member> exact = memberRepository.findByAge(77, pageRequest, CountStrategy.EXACT);
+        Slice<Member> cached = memberRepository.findByAge(77, pageRequest, CountStrategy.CACHED);
+
+        //then
+        //SLICE는 totalCount 없이 다음 페이지 유무만 앎
+        assertThat(slice).isNotInstanceOf(Page.class);
+        assertThat(slice.getContent()).extracting("username").containsExactly("count5", "count4", "count3");
+        assertThat(slice.hasNext()).isTrue();
+
+        assertThat(((Page<Member>) exact).getTotalElements()).isEqualTo(5);
+        assertThat(((Page<Member>) cached).getTotalElements()).isEqualTo(5);
+
+        //Member insert가 나가면 캐시된 count는 무효화됨
+        memberRepository.save(new Member("count6", 77));
+        em.flush();
+        Slice<Member> recounted = memberRepository.findByAge(77, pageRequest, CountStrategy.CACHED);
+        assertThat(((Page<Member>) recounted).getTotalElements()).isEqualTo(6);
+    }
+
+    /**
+     * 롤백된 쓰기의 count가 캐시에 남으면 안됨
+     * 커밋된 데이터가 있어야 하므로 테스트 트랜잭션 없이 실행
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void cachedCountAfterRollback() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        List<Member> members = new ArrayList<>();
+        try {
+            //given
+            //페이지 크기(1)보다 많아야 count 쿼리가 나감
+            tx.executeWithoutResult(status -> {
+                members.add(memberRepository.save(new Member("countRollback1", 4242)));
+                members.add(memberRepository.save(new Member("countRollback2", 4242)));
+            });
+            assertThat(cachedCount(4242)).isEqualTo(2);
+
+            //when
+            tx.executeWithoutResult(status -> {
+                memberRepository.save(new Member("countRollback3", 4242));
+                //쓰기가 있었던 트랜잭션은 캐시를 안쓰고 자기 insert까지 셈
+                assertThat(cachedCount(4242)).isEqualTo(3);
+                status.setRollbackOnly();
+            });
+
+            //then
+            assertThat(cachedCount(4242)).isEqualTo(2);
+
+            //커밋되면 캐시가 무효화됨
+            tx.executeWithoutResult(status -> members.add(memberRepository.save(new Member("countRollback4", 4242))));
+            assertThat(cachedCount(4242)).isEqualTo(3);
+        } finally {
+            tx.executeWithoutResult(status -> memberRepository.deleteAll(memberRepository.findAllById(
+                    members.stream().map(Member::getId).collect(Collectors.toList()))));
+        }
+    }
+
+    private long cachedCount(int age) {
+        return ((Page<Member>) memberRepository.findByAge(age, PageRequest.of(0, 1), CountStrategy.CACHED))
+                .getTotalElements();
+    }
+
+    @Test
+    public void memberDtoPaging() throws Exception {
+        //given
+        Team team = teamRepository.save(new Team("dtoTeam"));
+        memberRepository.save(new Member("dtoPaging", 10, team));
+        memberRepository.save(new Member("dtoPagingNoTeam", 10));
+        em.flush();
+        em.clear();
+
+        //when
+        Slice<MemberDto> page = memberRepository.findMemberDtos(PageRequest.of(0, 2), CountStrategy.EXACT);
+        Slice<MemberDto> all = memberRepository.findMemberDtos(Pageable.unpaged(), CountStrategy.SLICE);
+
+        //then
+        assertThat(page).isInstanceOf(Page.class);
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(((Page<MemberDto>) page).getTotalElements()).isEqualTo(memberRepository.count());
+        //엔티티 조회가 아니라서 영속성 컨텍스트는 비어있음
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isEqualTo(0);
+        assertThat(all.getContent())
+                .filteredOn(dto -> dto.getUsername() != null && dto.getUsername().startsWith("dtoPaging"))
+                .extracting(MemberDto::getUsername, MemberDto::getTeamName)
+                .containsExactlyInAnyOrder(tuple("dtoPaging", "dtoTeam"), tuple("dtoPagingNoTeam", null));
+    }
+
+    @Test
+    public void saveAllBatched() throws Exception {
+        //given
+        Team team = teamRepository.save(new Team("batchTeam"));
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            members.add(new Member("batch" + i, 88, team));
+        }
+
+        //when
+        long saved = memberRepository.saveAllBatched(members);
+
+        //then
+        assertThat(saved).isEqualTo(250);
+        assertThat(members).allMatch(m -> m.getId() != null);
+        assertThat(memberRepository.findByAge(88, PageRequest.of(0, 1), CountStrategy.EXACT))
+                .isInstanceOfSatisfying(Page.class, page -> assertThat(page.getTotalElements()).isEqualTo(250));
+    }
+
+    @Test
+    public void streamAll() throws Exception {
+        //given
+        Team team = teamRepository.save(new Team("streamTeam"));
+        for (int i = 0; i < 25; i++) {
+            memberRepository.save(new Member("stream" + i, 99, team));
+        }
+        em.flush();
+        em.clear();
+        //호출한 쪽이 먼저 읽어서 바꾸고 아직 flush 안한 회원
+        Member mine = em.createQuery("select m from Member m where m.username = 'stream0'", Member.class)
+                .getSingleResult();
+        mine.setAge(100);
+
+        //when
+        //fetchSize보다 많이 읽어도 청크마다 스트림이 넘겨준 row만 떼어냄
+        long count;
+        List<Member> streamed = new ArrayList<>();
+        try (Stream<Member> members = memberRepository.streamAll(10)) {
+            count = members
+                    .filter(m -> m.getUsername().startsWith("stream"))
+                    .peek(m -> assertThat(m.getTeam().getName()).isEqualTo("streamTeam"))
+                    .peek(streamed::add)
+                    .count();
+        }
+
+        //then
+        assertThat(count).isEqualTo(25);
+        //앞쪽 청크에서 넘겨준 회원은 떼어졌고, 호출한 쪽 회원과 변경은 그대로
+        assertThat(em.contains(streamed.get(1))).isFalse();
+        assertThat(em.contains(mine)).isTrue();
+        em.flush();
+        em.clear();
+        assertThat(em.find(Member.class, mine.getId()).getAge()).isEqualTo(100);
+    }
+
+    /**
+     * 테스트 트랜잭션 안에서 저장하면 StatelessSession(다른 커넥션)에서 안보이므로 트랜잭션 없이 실행
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void processInChunks() throws Exception {
+        //given
+        Team team = teamRepository.save(new Team("chunkTeam"));
+        List<Member> members = new ArrayList<>();
+        try {
+            for (int i = 0; i < 10; i++) {
+                members.add(memberRepository.save(new Member("chunk" + i, 77, team)));
+            }
+
+            //when
+            List<Integer> chunkSizes = new ArrayList<>();
+            long processed = memberRepository.processInChunks(3, chunk -> {
+                chunkSizes.add(chunk.size());
+                List<Member> changed = new ArrayList<>();
+                for (Member member : chunk) {
+                    if (member.getUsername() != null && member.getUsername().startsWith("chunk")) {
+                        //team은 페치 조인으로 같이 옴
+                        assertThat(member.getTeam().getName()).isEqualTo("chunkTeam");
+                        member.setAge(member.getAge() + 1);
+                        changed.add(member);
+                    }
+                }
+                return changed;
+            });
+
+            //then
+            assertThat(processed).isGreaterThanOrEqualTo(10);
+            assertThat(chunkSizes).allMatch(size -> size <= 3);
+            for (Member member : members) {
+                Member found = memberRepository.findById(member.getId()).get();
+                assertThat(found.getAge()).isEqualTo(78);
+                assertThat(found.getVersion()).isEqualTo(member.getVersion() + 1);
+            }
+        } finally {
+            //커밋된 데이터라 직접 정리 (version이 바뀌었으니 id로 다시 읽어서 삭제)
+            for (Member member : members) {
+                memberRepository.deleteById(member.getId());
+            }
+            teamRepository.deleteById(team.getId());
+        }
+    }
+
+    /**
+     * 목록 크기별 findByNames
+     * 청크 분할(1000 초과), 배열 조인(10000 초과) 구간을 모두 지나도 결과가 같아야 함
+     * 크기별 속도는 JMH (FindByNamesBenchmark)
+     */
+    @Test
+    public void findByNamesLargeList() throws Exception {
+        //given
+        memberRepository.save(new Member("inlist-a", 10));
+        memberRepository.save(new Member("inlist-b", 10));
+
+        //IN 한번, 청크 분할(1000 초과), 배열 조인(10000 초과)
+        for (int size : new int[]{2, 1_001, 10_001}) {
+            List<String> names = new ArrayList<>();
+            names.add("inlist-a");
+            names.add("inlist-b");
+            names.add("inlist-a");
+            for (int i = names.size(); i < size; i++) {
+                names.add("inlist-missing" + i);
+            }
+
+            //when
+            List<Member> result = memberRepository.findByNames(names);
+
+            //then
+            assertThat(result).extracting("username").containsExactlyInAnyOrder("inlist-a", "inlist-b");
+        }
+        assertThat(memberRepository.findByNames(null)).isEmpty();
+    }
+
+    /**
+     * N+1 회귀 방지
+     * 페치 조인은 팀 수와 상관없이 쿼리 한번이어야 함
+     */
+    @Test
+    public void statementBudget() throws Exception {
+        //given
+        for (int i = 0; i < 3; i++) {
+            Team team = teamRepository.save(new Team("budgetTeam" + i));
+            memberRepository.save(new Member("budget" + i, 10, team));
+        }
+        em.flush();
+        em.clear();
+
+        //when
+        long fetchJoin = statementCounter.count(() ->
+                memberRepository.findMemberFetchJoin().forEach(m -> {
+                    if (m.getTeam() != null) m.getTeam().getName();
+                }));
+        em.clear();
+        long lazy = statementCounter.count(() ->
+                memberRepository.findMemberCustom().forEach(m -> {
+                    if (m.getTeam() != null) m.getTeam().getName();
+                }));
+        em.clear();
+
+        //then
+        assertThat(fetchJoin).isEqualTo(1);
+        assertThat(lazy).isGreaterThan(fetchJoin);
+
+        assertThatThrownBy(() -> statementCounter.withinBudget(1, () -> {
+            memberRepository.findMemberCustom().forEach(m -> {
+                if (m.getTeam() != null) m.getTeam().getName();
+            });
+            return null;
+        })).isInstanceOf(StatementBudgetExceededException.class);
+    }
+
+    /**
+     * 같은 트랜잭션에서 저장한 엔티티는 auditor를 한번만 꺼내서 같이 씀
+     */
+    @Test
+    public void auditorResolvedOncePerTransaction() throws Exception {
+        //given
+        Member member1 = memberRepository.save(new Member("auditor1", 10));
+        Member member2 = memberRepository.save(new Member("auditor2", 20));
+
+        //when
+        em.flush();
+
+        //then
+        assertThat(member1.getCreatedBy()).isNotNull();
+        assertThat(member2.getCreatedBy()).isEqualTo(member1.getCreatedBy());
+    }
+}
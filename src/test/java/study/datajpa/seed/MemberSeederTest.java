@@ -0,0 +1,55 @@
+package study.datajpa.seed;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class MemberSeederTest {
+
+    @Autowired MemberSeeder memberSeeder;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void seedInParallelChunks() {
+        //given
+        SeedProperties properties = new SeedProperties();
+        properties.setTeams(10);
+        properties.setMembers(1000);
+        properties.setThreads(4);
+        properties.setChunkSize(100);
+        properties.setDistribution(SeedProperties.TeamDistribution.SKEWED);
+        properties.setUsernamePrefix("seedMember");
+        properties.setTeamPrefix("seedTeam");
+        properties.setReportInterval(Duration.ofMillis(100));
+
+        try {
+            //when
+            SeedResult result = memberSeeder.seed(properties);
+
+            //then
+            assertThat(result.getTeams()).isEqualTo(10);
+            assertThat(result.getMembers()).isEqualTo(1000);
+            assertThat(jdbcTemplate.queryForObject(
+                    "select count(distinct username) from member where username like 'seedMember%'", Long.class))
+                    .isEqualTo(1000L);
+
+            //SKEWED라 앞 번호 팀에 몰림
+            List<Long> teamSizes = jdbcTemplate.queryForList(
+                    "select count(*) from member m join team t on m.team_id = t.team_id" +
+                            " where t.name like 'seedTeam%' group by t.team_id order by t.team_id", Long.class);
+            assertThat(teamSizes.stream().mapToLong(Long::longValue).sum()).isEqualTo(1000L);
+            assertThat(teamSizes.get(0)).isGreaterThan(teamSizes.get(teamSizes.size() - 1));
+        } finally {
+            //공유 DB에 커밋된 데이터라 다른 테스트 결과에 영향 없도록 정리
+            jdbcTemplate.update("delete from member where username like 'seedMember%'");
+            jdbcTemplate.update("delete from team where name like 'seedTeam%'");
+        }
+    }
+}
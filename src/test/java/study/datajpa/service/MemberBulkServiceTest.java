@@ -0,0 +1,49 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class MemberBulkServiceTest {
+
+    @Autowired MemberBulkService memberBulkService;
+    @Autowired MemberRepository memberRepository;
+
+    @Test
+    public void bulkAgePlusChunked() {
+        //given
+        //다른 테스트 데이터와 겹치지 않도록 큰 나이 사용 (청크 단위로 각각 커밋됨)
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            members.add(memberRepository.save(new Member("bulk" + i, 5000 + i)));
+        }
+        Long resumeAfterId = members.get(4).getId();
+
+        //when
+        //앞의 5명은 이미 처리됐다고 치고 중간부터 재시작
+        List<BulkUpdateProgress> progresses = new ArrayList<>();
+        BulkUpdateProgress result = memberBulkService.bulkAgePlusChunked(
+                5000, resumeAfterId, 2, Duration.ZERO, progresses::add);
+
+        //then
+        assertThat(result.isCompleted()).isTrue();
+        assertThat(result.getUpdatedRows()).isEqualTo(5);
+        //청크 경계를 실제 id로 고르므로 빈 청크 없이 2, 2, 1
+        assertThat(progresses).extracting(BulkUpdateProgress::getUpdatedRows).containsExactly(2L, 4L, 5L);
+        assertThat(progresses.get(progresses.size() - 1).getLastProcessedId()).isEqualTo(result.getMaxId());
+
+        for (int i = 0; i < 10; i++) {
+            Member found = memberRepository.findById(members.get(i).getId()).get();
+            assertThat(found.getAge()).isEqualTo(i < 5 ? 5000 + i : 5000 + i + 1);
+        }
+    }
+}
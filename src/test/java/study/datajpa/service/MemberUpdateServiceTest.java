@@ -0,0 +1,74 @@
+package study.datajpa.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.support.ConcurrencyMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+//경합이 심해도 다 성공하도록 재시도 횟수를 넉넉하게
+@SpringBootTest(properties = "app.optimistic-retry.max-attempts=50")
+class MemberUpdateServiceTest {
+
+    @Autowired MemberUpdateService memberUpdateService;
+    @Autowired MemberRepository memberRepository;
+    @Autowired ConcurrencyMetrics concurrencyMetrics;
+
+    @Test
+    public void optimisticRetry() throws Exception {
+        //given
+        Member member = memberRepository.save(new Member("optimisticHot", 0));
+        Long versionBefore = memberRepository.findById(member.getId()).get().getVersion();
+
+        //when
+        runConcurrently(20, () -> memberUpdateService.updateOptimistic("optimisticHot",
+                m -> m.setAge(m.getAge() + 1)));
+
+        //then
+        //충돌한 수정도 재시도로 전부 반영됨 (lost update 없음)
+        Member found = memberRepository.findById(member.getId()).get();
+        assertThat(found.getAge()).isEqualTo(20);
+        assertThat(found.getVersion()).isEqualTo(versionBefore + 20);
+        assertThat(concurrencyMetrics.snapshot().getOptimisticFailures()).isEqualTo(0);
+    }
+
+    @Test
+    public void pessimisticLock() throws Exception {
+        //given
+        Member member = memberRepository.save(new Member("pessimisticHot", 0));
+        long before = concurrencyMetrics.snapshot().getPessimisticUpdates();
+
+        //when
+        runConcurrently(20, () -> memberUpdateService.updatePessimistic("pessimisticHot",
+                m -> m.setAge(m.getAge() + 1)));
+
+        //then
+        assertThat(memberRepository.findById(member.getId()).get().getAge()).isEqualTo(20);
+        assertThat(concurrencyMetrics.snapshot().getPessimisticUpdates() - before).isEqualTo(20);
+    }
+
+    private void runConcurrently(int count, Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(() -> {
+                task.run();
+                return null;
+            });
+        }
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+            future.get(); //실패한 작업이 있으면 여기서 예외
+        }
+        executor.shutdown();
+    }
+}
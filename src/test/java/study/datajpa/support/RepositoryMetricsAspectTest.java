@@ -0,0 +1,45 @@
+package study.datajpa.support;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class RepositoryMetricsAspectTest {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired MeterRegistry meterRegistry;
+
+    @Test
+    public void repositoryMethodMetrics() {
+        //given
+        Member first = memberRepository.save(new Member("metrics", 10));
+        Member second = memberRepository.save(new Member("metrics", 20));
+        try {
+            //when
+            memberRepository.findListByUsername("metrics");
+
+            //then
+            Timer timer = meterRegistry.get("repository.method")
+                    .tags("repository", "MemberRepository", "method", "findListByUsername")
+                    .timer();
+            assertThat(timer.count()).isGreaterThanOrEqualTo(1);
+
+            assertThat(meterRegistry.get("repository.method.rows")
+                    .tags("repository", "MemberRepository", "method", "findListByUsername")
+                    .summary().max()).isGreaterThanOrEqualTo(2);
+            assertThat(meterRegistry.get("repository.method.statements")
+                    .tags("repository", "MemberRepository", "method", "findListByUsername")
+                    .summary().totalAmount()).isGreaterThanOrEqualTo(1);
+        } finally {
+            memberRepository.deleteById(first.getId());
+            memberRepository.deleteById(second.getId());
+        }
+    }
+}
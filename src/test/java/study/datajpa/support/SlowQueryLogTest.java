@@ -0,0 +1,50 @@
+package study.datajpa.support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+//threshold 0 -> 모든 SQL이 기록 대상
+@SpringBootTest(properties = "app.slow-query.threshold=0ms")
+class SlowQueryLogTest {
+
+    @Autowired SlowQueryLog slowQueryLog;
+    @Autowired MemberRepository memberRepository;
+
+    @Test
+    public void recordsSlowQueryWithCallerAndPlan() throws Exception {
+        //given
+        Member member = memberRepository.save(new Member("slowQuery", 10));
+        try {
+            slowQueryLog.clear();
+
+            //when
+            memberRepository.findListByUsername("slowQuery");
+
+            //then
+            List<SlowQueryLog.SlowQuery> recent = slowQueryLog.recent();
+            assertThat(recent).isNotEmpty();
+            SlowQueryLog.SlowQuery query = recent.get(0);
+            assertThat(query.getRepositoryMethod()).isEqualTo("MemberRepository.findListByUsername");
+            assertThat(query.getSql()).contains("'slowQuery'"); //바인딩 값 포함
+            //EXPLAIN은 별도 스레드에서 나중에 채워짐, 그 쿼리 자체는 기록되지 않음
+            assertThat(awaitPlan(query)).isNotNull();
+            assertThat(slowQueryLog.recent()).noneMatch(q -> q.getSql().toLowerCase().startsWith("explain"));
+        } finally {
+            memberRepository.delete(member);
+        }
+    }
+
+    private static String awaitPlan(SlowQueryLog.SlowQuery query) throws InterruptedException {
+        for (int i = 0; i < 50 && query.getPlan() == null; i++) {
+            Thread.sleep(100);
+        }
+        return query.getPlan();
+    }
+}
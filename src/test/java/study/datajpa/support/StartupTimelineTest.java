@@ -0,0 +1,24 @@
+package study.datajpa.support;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class StartupTimelineTest {
+
+    @Autowired StartupTimeline startupTimeline;
+
+    @Test
+    public void recordsStartupPhasesAndBeanInit() {
+        assertThat(startupTimeline.getPhases())
+                .extracting(StartupTimeline.Phase::getEvent)
+                .contains("ApplicationPreparedEvent", "ContextRefreshedEvent", "ApplicationStartedEvent");
+        //EntityManagerFactory 초기화는 항상 잡혀야 함
+        assertThat(startupTimeline.slowestBeans())
+                .extracting(StartupTimeline.BeanInit::getName)
+                .contains("entityManagerFactory");
+    }
+}